@@ -0,0 +1,163 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On disk cache of generated .ll files.
+ * An entry is named after the hash of the source bytes together with the version of the compiler,
+ * where the version is a fingerprint of the compiler's own class files, so that rebuilding the compiler
+ * invalidates everything it generated before. The options that change the generated IR, such as --no-optimize, are part of the hash too.
+ * Only compilations without errors are stored.
+ * Entries are touched on every hit, and evict() removes the least recently used ones until the cache fits in its size.
+ */
+class CompilationCache {
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final byte[] compilerVersion;
+    private final byte[] options;
+    private final AtomicInteger hits;
+    private final AtomicInteger misses;
+
+    public CompilationCache(Path directory, long maxBytes, String options) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.compilerVersion = compilerFingerprint();
+        this.options = options.getBytes(StandardCharsets.UTF_8);
+        this.hits = new AtomicInteger();
+        this.misses = new AtomicInteger();
+        Files.createDirectories(directory);
+    }
+
+    public String key(byte[] source) {
+        MessageDigest digest = sha256();
+        digest.update(this.compilerVersion);
+        digest.update(this.options);
+        digest.update(source);
+        return toHex(digest.digest());
+    }
+
+    /*Returns the cached IR of the given key, or null if we have never seen it*/
+    public byte[] lookup(String key) {
+        Path entry = this.directory.resolve(key + ".ll");
+        try {
+            byte[] ir = Files.readAllBytes(entry);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            this.hits.incrementAndGet();
+            return ir;
+        } catch (IOException ex) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void store(String key, byte[] ir) throws IOException {
+        /*Write to a temporary file first, so that a concurrent lookup never sees half an entry*/
+        Path temp = Files.createTempFile(this.directory, key, ".tmp");
+        Files.write(temp, ir);
+        Files.move(temp, this.directory.resolve(key + ".ll"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(this.directory)) {
+            entries = files.filter(path -> path.toString().endsWith(".ll")).collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        long totalBytes = 0;
+        for (Path entry : entries) {
+            totalBytes += Files.size(entry);
+        }
+        if (totalBytes <= this.maxBytes) {
+            return;
+        }
+
+        entries.sort(Comparator.comparing(CompilationCache::lastModified));
+        for (Path entry : entries) {
+            if (totalBytes <= this.maxBytes) {
+                break;
+            }
+            totalBytes -= Files.size(entry);
+            Files.deleteIfExists(entry);
+        }
+    }
+
+    public void printSummary(PrintStream out) {
+        out.println("Compilation cache: " + this.hits.get() + " hits, " + this.misses.get() + " misses");
+    }
+
+    /*Writes the output only if its contents differ, so that an unchanged .ll keeps its modification time*/
+    public static void writeIfChanged(Path output, byte[] ir) throws IOException {
+        if (Files.exists(output) && Files.size(output) == ir.length && Arrays.equals(Files.readAllBytes(output), ir)) {
+            return;
+        }
+        Files.write(output, ir);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static byte[] compilerFingerprint() throws IOException {
+        Path location;
+        try {
+            location = Paths.get(Main.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException ex) {
+            throw new IOException(ex);
+        }
+
+        MessageDigest digest = sha256();
+        if (Files.isDirectory(location)) {
+            List<Path> classFiles;
+            try (Stream<Path> files = Files.walk(location)) {
+                classFiles = files.filter(path -> path.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+            }
+            for (Path classFile : classFiles) {
+                digest.update(location.relativize(classFile).toString().getBytes());
+                digest.update(Files.readAllBytes(classFile));
+            }
+        }
+        else {
+            digest.update(Files.readAllBytes(location));
+        }
+
+        return digest.digest();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
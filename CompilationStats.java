@@ -0,0 +1,126 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import emitters.CountingIREmitter;
+import visitors.*;
+
+/**
+ * Wall time, CPU time and allocated bytes of every phase of the compilation of one file,
+ * along with the size of the output and a few counts about the program.
+ * CPU time and allocations are those of the current thread, plus those of the pool threads that generated the methods
+ * of the file (see IntermidiateRepresentation.getWorkerCpuNanos), so files compiled in parallel do not disturb each other.
+ */
+class CompilationStats {
+    public static final int PARSE = 0;
+    public static final int CLASS_DEFINITIONS = 1;
+    public static final int CODEGEN = 2;
+    public static final int TYPE_CHECK = 3;
+    private static final String[] PHASES = {"parse", "classDefinitions", "codegen", "typeCheck"};
+
+    private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public final String file;
+    public final long[] wallNanos;
+    public final long[] cpuNanos;
+    public final long[] allocatedBytes;
+    public boolean cached;
+    public long outputBytes;
+    public int classes;
+    public int methods;
+    public int instructions;
+    public int registers;
+
+    private long startWall;
+    private long startCpu;
+    private long startAllocated;
+
+    public CompilationStats(String file) {
+        this.file = file;
+        this.wallNanos = new long[PHASES.length];
+        this.cpuNanos = new long[PHASES.length];
+        this.allocatedBytes = new long[PHASES.length];
+    }
+
+    public void start() {
+        this.startAllocated = threadMXBean.getCurrentThreadAllocatedBytes();
+        this.startCpu = threadMXBean.getCurrentThreadCpuTime();
+        this.startWall = System.nanoTime();
+    }
+
+    public void stop(int phase) {
+        this.wallNanos[phase] += System.nanoTime() - this.startWall;
+        this.cpuNanos[phase] += threadMXBean.getCurrentThreadCpuTime() - this.startCpu;
+        this.allocatedBytes[phase] += threadMXBean.getCurrentThreadAllocatedBytes() - this.startAllocated;
+    }
+
+    /*Counts what the code generator has produced, even if it stopped half way, and adds the work of its pool threads to codegen*/
+    public void count(ClassDefinitions classDefs, IntermidiateRepresentation intermidiateRepresentation, CountingIREmitter emitter) {
+        this.cpuNanos[CODEGEN] += intermidiateRepresentation.getWorkerCpuNanos();
+        this.allocatedBytes[CODEGEN] += intermidiateRepresentation.getWorkerAllocatedBytes();
+        this.classes = classDefs.getDefinitions().size();
+        this.methods = intermidiateRepresentation.getMethodCount();
+        this.instructions = emitter.getInstructions();
+        this.registers = intermidiateRepresentation.getRegisterCount();
+        this.outputBytes = emitter.getCharacters();
+    }
+
+    /*Only the classes are counted when nothing is generated (--check-only)*/
+    public void count(ClassDefinitions classDefs) {
+        this.classes = classDefs.getDefinitions().size();
+    }
+
+    public static void printTable(List<CompilationStats> allStats, PrintStream out) {
+        out.println(String.format("%-30s %-17s %10s %10s %12s", "File", "Phase", "Wall ms", "CPU ms", "Alloc KB"));
+        for (CompilationStats stats : allStats) {
+            long wall = 0;
+            long cpu = 0;
+            long allocated = 0;
+            for (int i = 0 ; i < PHASES.length ; i++) {
+                out.println(String.format("%-30s %-17s %10.3f %10.3f %12.1f", i == 0 ? stats.file : "", PHASES[i],
+                        stats.wallNanos[i] / 1e6, stats.cpuNanos[i] / 1e6, stats.allocatedBytes[i] / 1024.0));
+                wall += stats.wallNanos[i];
+                cpu += stats.cpuNanos[i];
+                allocated += stats.allocatedBytes[i];
+            }
+            out.println(String.format("%-30s %-17s %10.3f %10.3f %12.1f", "", "total", wall / 1e6, cpu / 1e6, allocated / 1024.0));
+            if (stats.cached) {
+                out.println(String.format("%-30s output %d bytes, from cache", "", stats.outputBytes));
+            }
+            else {
+                out.println(String.format("%-30s output %d bytes, %d classes, %d methods, %d instructions, %d registers", "",
+                        stats.outputBytes, stats.classes, stats.methods, stats.instructions, stats.registers));
+            }
+        }
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"file\":\"");
+        for (int i = 0 ; i < this.file.length() ; i++) {
+            char c = this.file.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                json.append(c);
+            }
+        }
+        json.append("\",\"cached\":").append(this.cached);
+        for (int i = 0 ; i < PHASES.length ; i++) {
+            json.append(",\"").append(PHASES[i]).append("\":{\"wallNanos\":").append(this.wallNanos[i])
+                    .append(",\"cpuNanos\":").append(this.cpuNanos[i])
+                    .append(",\"allocatedBytes\":").append(this.allocatedBytes[i]).append('}');
+        }
+        json.append(",\"outputBytes\":").append(this.outputBytes)
+                .append(",\"classes\":").append(this.classes)
+                .append(",\"methods\":").append(this.methods)
+                .append(",\"instructions\":").append(this.instructions)
+                .append(",\"registers\":").append(this.registers)
+                .append('}');
+        return json.toString();
+    }
+}
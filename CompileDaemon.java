@@ -0,0 +1,169 @@
+import syntaxtree.Goal;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import emitters.MemoryIREmitter;
+import visitors.*;
+
+/**
+ * Long running compiler, listening on a UNIX domain socket.
+ * The parser and the visitors stay loaded (and JIT compiled) between requests,
+ * and the results of the most recent compilations are kept in memory, keyed by the hash of the source.
+ * The wire format is described in DaemonClient, which is the client for this daemon.
+ */
+class CompileDaemon {
+    public static final int DEFAULT_CACHE_ENTRIES = 1024;
+
+    private final Path socketPath;
+    private final Map<String, CompileResult> cache;
+    private final ExecutorService workers;
+    private ServerSocketChannel server;
+    private volatile boolean running;
+
+    public CompileDaemon(Path socketPath, final int cacheEntries) {
+        this.socketPath = socketPath;
+        /*Access ordered LinkedHashMap, the least recently used result is evicted first*/
+        this.cache = new LinkedHashMap<String, CompileResult>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, CompileResult> eldest) {
+                return size() > cacheEntries;
+            }
+        };
+        this.workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.running = true;
+    }
+
+    public void serve() throws IOException {
+        Files.deleteIfExists(this.socketPath);
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        this.server.bind(UnixDomainSocketAddress.of(this.socketPath));
+        System.err.println("Listening on " + this.socketPath);
+
+        try {
+            while (this.running) {
+                final SocketChannel client = this.server.accept();
+                this.workers.submit(() -> handle(client));
+            }
+        } catch (AsynchronousCloseException ex) {
+            /*A stop request closed the server while we were waiting for a connection*/
+            if (this.running) {
+                throw ex;
+            }
+        } finally {
+            this.workers.shutdown();
+            this.server.close();
+            Files.deleteIfExists(this.socketPath);
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (SocketChannel channel = client) {
+            DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+
+            byte kind = in.readByte();
+            if (kind == DaemonClient.STOP) {
+                this.running = false;
+                out.writeByte(DaemonClient.OK);
+                out.flush();
+                this.server.close();
+                return;
+            }
+
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+
+            CompileResult result;
+            if (kind == DaemonClient.PATH) {
+                String path = new String(payload, StandardCharsets.UTF_8);
+                try {
+                    result = compile(Files.readAllBytes(Paths.get(path)));
+                } catch (IOException ex) {
+                    result = new CompileResult(false, "", "Cannot read " + path + " (" + ex.getMessage() + ")\n");
+                }
+            }
+            else {
+                result = compile(payload);
+            }
+
+            out.writeByte(result.succeeded ? DaemonClient.OK : DaemonClient.FAILED);
+            writeBytes(out, result.ir.getBytes(StandardCharsets.UTF_8));
+            writeBytes(out, result.errors.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private CompileResult compile(byte[] source) {
+        String key = hash(source);
+
+        synchronized (this.cache) {
+            CompileResult cached = this.cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream err = new PrintStream(errors);
+        MemoryIREmitter emitter = new MemoryIREmitter();
+        boolean succeeded = false;
+        try {
+            Goal root = Main.parse(ByteBuffer.wrap(source));
+            ClassDefinitions classDefs = Main.collectDefinitions(root);
+            succeeded = Main.generate(root, classDefs, new IntermidiateRepresentation(classDefs, emitter), err);
+        } catch (ParseException ex) {
+            err.println(ex.getMessage());
+        } catch (RuntimeException | StackOverflowError ex) {
+            /*The same as Main, only the message of what stopped the compilation*/
+            err.println(Main.describe(ex));
+        }
+        err.flush();
+
+        CompileResult result = new CompileResult(succeeded, emitter.toString(), errors.toString());
+        synchronized (this.cache) {
+            this.cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    static String hash(byte[] source) {
+        return CompilationCache.toHex(CompilationCache.sha256().digest(source));
+    }
+}
+
+class CompileResult {
+    public final boolean succeeded;
+    public final String ir;
+    public final String errors;
+
+    public CompileResult(boolean succeeded, String ir, String errors) {
+        this.succeeded = succeeded;
+        this.ir = ir;
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,105 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Thin client for CompileDaemon, it does not load the compiler at all.
+ * Usage: java DaemonClient <socket> [--source] java_file1.java ... java_fileN.java
+ *        java DaemonClient <socket> --stop
+ * By default the daemon is sent the absolute path of every file, with --source the contents of the file are sent instead.
+ * The .ll files are written to the current directory, exactly like Main does.
+ *
+ * Every request is a new connection:
+ * request  : kind (byte), payload length (int), payload (path or source, UTF-8)
+ * response : status (byte), IR length (int), IR, errors length (int), errors
+ * A stop request is just its kind, and its response just the status.
+ */
+class DaemonClient {
+    public static final byte PATH = 'P';
+    public static final byte SOURCE = 'S';
+    public static final byte STOP = 'Q';
+
+    public static final byte OK = 0;
+    public static final byte FAILED = 1;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java DaemonClient <socket> [--source] <inputFile> ... | --stop");
+            System.exit(-1);
+        }
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(args[0]);
+
+        if (args[1].equals("--stop")) {
+            try (SocketChannel channel = SocketChannel.open(address)) {
+                DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+                out.writeByte(STOP);
+                out.flush();
+                new DataInputStream(Channels.newInputStream(channel)).readByte();
+            }
+            return;
+        }
+
+        boolean sendSource = false;
+        boolean failed = false;
+        for (int i = 1 ; i < args.length ; i++) {
+            if (args[i].equals("--source")) {
+                sendSource = true;
+                continue;
+            }
+
+            Path path = Paths.get(args[i]);
+            byte kind;
+            byte[] payload;
+            if (sendSource) {
+                kind = SOURCE;
+                try {
+                    payload = Files.readAllBytes(path);
+                } catch (IOException ex) {
+                    System.err.println(ex.getMessage());
+                    continue;
+                }
+            }
+            else {
+                kind = PATH;
+                payload = path.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8);
+            }
+
+            try (SocketChannel channel = SocketChannel.open(address)) {
+                DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+                out.writeByte(kind);
+                out.writeInt(payload.length);
+                out.write(payload);
+                out.flush();
+
+                DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+                byte status = in.readByte();
+                byte[] ir = readBytes(in);
+                byte[] errors = readBytes(in);
+
+                if (ir.length > 0) {
+                    String fileName = path.getFileName().toString();
+                    Files.write(Paths.get(fileName.contains(".java") ? fileName.replace(".java", ".ll") : (fileName + ".ll")), ir);
+                }
+                System.err.print(new String(errors, StandardCharsets.UTF_8));
+                failed |= status != OK;
+            }
+        }
+
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
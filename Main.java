@@ -1,66 +1,451 @@
 import syntaxtree.Goal;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import emitters.CountingIREmitter;
+import emitters.FileIREmitter;
+import emitters.MemoryIREmitter;
 import visitors.*;
 
 class Main {
+    /*Keep the syntax tree in a CompactTree (--compact-ast)*/
+    private static boolean compactTrees = false;
+    /*Only type check, no IR is generated (--check-only)*/
+    private static boolean checkOnly = false;
+    /*Run the IR optimizations, mem2reg and the passes after it (turned off by --no-optimize)*/
+    private static boolean optimize = true;
+
     public static void main(String[] args) {
-        if (args.length == 0) {
+        int jobs = 1;
+        String daemonSocket = null;
+        int cacheEntries = CompileDaemon.DEFAULT_CACHE_ENTRIES;
+        String cacheDirectory = null;
+        long cacheBytes = CompilationCache.DEFAULT_MAX_BYTES;
+        boolean printStats = false;
+        String statsJson = null;
+        List<String> files = new ArrayList<String>();
+        for (int i = 0 ; i < args.length ; i++) {
+            if (args[i].equals("--jobs") || args[i].equals("--daemon") || args[i].equals("--cache-entries")
+                    || args[i].equals("--cache-dir") || args[i].equals("--cache-size") || args[i].equals("--stats-json")) {
+                if (i + 1 == args.length) {
+                    System.err.println("Usage: java Main [--jobs N] [--cache-dir DIR [--cache-size MB]] [--stats] [--stats-json FILE] [--compact-ast] [--check-only] [--no-optimize] <inputFile> ... | --daemon <socket> [--cache-entries N] [--compact-ast] [--no-optimize]");
+                    System.exit(-1);
+                }
+            }
+
+            if (args[i].equals("--jobs")) {
+                jobs = Integer.parseInt(args[++i]);
+                /*A non positive number of jobs means use every core we have*/
+                if (jobs <= 0) {
+                    jobs = Runtime.getRuntime().availableProcessors();
+                }
+            }
+            else if (args[i].equals("--daemon")) {
+                daemonSocket = args[++i];
+            }
+            else if (args[i].equals("--cache-entries")) {
+                cacheEntries = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--cache-dir")) {
+                cacheDirectory = args[++i];
+            }
+            else if (args[i].equals("--cache-size")) {
+                cacheBytes = Long.parseLong(args[++i]) * 1024 * 1024;
+            }
+            else if (args[i].equals("--compact-ast")) {
+                compactTrees = true;
+            }
+            else if (args[i].equals("--check-only")) {
+                checkOnly = true;
+            }
+            else if (args[i].equals("--no-optimize")) {
+                optimize = false;
+            }
+            else if (args[i].equals("--stats")) {
+                printStats = true;
+            }
+            else if (args[i].equals("--stats-json")) {
+                statsJson = args[++i];
+            }
+            else {
+                files.add(args[i]);
+            }
+        }
+
+        if (daemonSocket != null) {
+            try {
+                new CompileDaemon(Paths.get(daemonSocket), cacheEntries).serve();
+            } catch (IOException ex) {
+                System.err.println(ex.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
+        if (files.size() == 0) {
             System.err.println("Usage: java Driver <inputFile>");
             System.exit(-1);
         }
-        FileInputStream fis = null;
-        for (int i = 0 ; i < args.length ; i++) {
-            try {
-                fis = new FileInputStream(args[i]);
-                MiniJavaParser mjparser = new MiniJavaParser(fis);
-                Goal root = mjparser.Goal();
 
-                ClassDefinitions classDefs = new ClassDefinitions();
-                root.accept(classDefs, null);
+        CompilationCache cache = null;
+        if (cacheDirectory != null) {
+            try {
+                cache = new CompilationCache(Paths.get(cacheDirectory), cacheBytes, optimize ? "" : "--no-optimize");
+            } catch (IOException ex) {
+                System.err.println(ex.getMessage());
+                System.exit(1);
+            }
+        }
 
-                Path path = Paths.get(args[i]);
-                Path fileName = path.getFileName();
-                IntermidiateRepresentation intermidiateRepresentation = new IntermidiateRepresentation(classDefs, fileName.toString());
-                boolean failed = classDefs.getErrorMessages().size() > 0;
+        List<CompilationStats> stats = new ArrayList<CompilationStats>(files.size());
+        for (String file : files) {
+            stats.add(new CompilationStats(file));
+        }
 
-                root.accept(intermidiateRepresentation, null);
-                /*try {
-                    root.accept(intermidiateRepresentation, null);
-                } catch (RuntimeException re) {
-                    classDefs.getErrorMessages().add(re.getMessage());
-                    failed = true;
-                }*/
-
-                if (failed) {
-                    printErrors(classDefs.getErrorMessages());
-                    System.err.println("LLVM Code Generation failed");
-                    System.err.println();
+        boolean succeeded = true;
+        try {
+            if (jobs == 1 || files.size() == 1) {
+                for (int i = 0 ; i < files.size() ; i++) {
+                    succeeded &= compile(files.get(i), cache, stats.get(i), System.err);
                 }
-            } catch (ParseException ex) {
-                System.err.println(ex.getMessage());
-            } catch (FileNotFoundException ex) {
-                System.err.println(ex.getMessage());
-            } finally {
+            }
+            else {
+                succeeded = compileParallel(files, jobs, cache, stats);
+            }
+        } finally {
+            if (cache != null) {
                 try {
-                    if (fis != null) {
-                        fis.close();
-                    }
+                    cache.evict();
                 } catch (IOException ex) {
                     System.err.println(ex.getMessage());
                 }
+                cache.printSummary(System.err);
+            }
+            if (printStats) {
+                CompilationStats.printTable(stats, System.out);
+            }
+            if (statsJson != null) {
+                writeStats(stats, Paths.get(statsJson));
+            }
+        }
+
+        if (!succeeded) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compiles every file on a pool of 'jobs' threads.
+     * Each file gets its own error stream, which is printed in the order that files were given,
+     * so the messages of one file are never mixed with the messages of another.
+     * Returns false if compilation of any file was aborted, the same as compiling them one after the other.
+     */
+    private static boolean compileParallel(List<String> files, int jobs, final CompilationCache cache, List<CompilationStats> stats) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(jobs, files.size()));
+        List<Future<ByteArrayOutputStream>> results = new ArrayList<Future<ByteArrayOutputStream>>(files.size());
+        boolean succeeded = true;
+
+        try {
+            for (int i = 0 ; i < files.size() ; i++) {
+                final String file = files.get(i);
+                final CompilationStats fileStats = stats.get(i);
+                results.add(executor.submit(() -> {
+                    ByteArrayOutputStream errors = new ByteArrayOutputStream();
+                    PrintStream err = new PrintStream(errors);
+                    boolean compiled = compile(file, cache, fileStats, err);
+                    err.flush();
+                    if (!compiled) {
+                        throw new CompilationAbortedException(errors);
+                    }
+                    return errors;
+                }));
+            }
+
+            for (Future<ByteArrayOutputStream> result : results) {
+                try {
+                    System.err.print(result.get().toString());
+                } catch (ExecutionException ex) {
+                    /*Anything that compile did not catch (e.g. an OutOfMemoryError) still fails only its own file*/
+                    if (ex.getCause() instanceof CompilationAbortedException) {
+                        System.err.print(((CompilationAbortedException) ex.getCause()).errors.toString());
+                    }
+                    else {
+                        System.err.println(describe(ex.getCause()));
+                    }
+                    succeeded = false;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    succeeded = false;
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return succeeded;
+    }
+
+    /**
+     * Compiles a file, the errors of the program go to err.
+     * An exception (a type error found by the code generator, or input nested too deeply for the parser) stops only this file,
+     * its message is printed to err and false is returned, so the files after it are still compiled.
+     */
+    private static boolean compile(String file, CompilationCache cache, CompilationStats stats, PrintStream err) {
+        try {
+            if (checkOnly) {
+                check(file, stats, err);
+            }
+            else if (cache != null) {
+                compileCached(file, cache, stats, err);
+            }
+            else {
+                compile(file, stats, err);
+            }
+            return true;
+        } catch (RuntimeException | StackOverflowError ex) {
+            err.println(describe(ex));
+            return false;
+        }
+    }
+
+    static String describe(Throwable throwable) {
+        return throwable.getMessage() == null ? throwable.toString() : throwable.getMessage();
+    }
+
+    private static void compile(String file, CompilationStats stats, PrintStream err) {
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            stats.start();
+            Goal root = parse(MappedCharStream.read(fis.getChannel()));
+            stats.stop(CompilationStats.PARSE);
+
+            stats.start();
+            ClassDefinitions classDefs = collectDefinitions(root);
+            stats.stop(CompilationStats.CLASS_DEFINITIONS);
+
+            Path path = Paths.get(file);
+            Path fileName = path.getFileName();
+            stats.start();
+            CountingIREmitter emitter = new CountingIREmitter(new FileIREmitter(Paths.get(outputFileName(fileName.toString()))));
+            IntermidiateRepresentation intermidiateRepresentation = new IntermidiateRepresentation(classDefs, emitter);
+            try {
+                generate(root, classDefs, intermidiateRepresentation, err);
+            } finally {
+                stats.stop(CompilationStats.CODEGEN);
+                stats.count(classDefs, intermidiateRepresentation, emitter);
+            }
+        } catch (ParseException ex) {
+            err.println(ex.getMessage());
+        } catch (FileNotFoundException ex) {
+            err.println(ex.getMessage());
+        } catch (IOException ex) {
+            err.println(ex.getMessage());
+        } finally {
+            try {
+                if (fis != null) {
+                    fis.close();
+                }
+            } catch (IOException ex) {
+                err.println(ex.getMessage());
+            }
+        }
+    }
+
+    /*Same as compile, but the program is only type checked, nothing is written*/
+    private static void check(String file, CompilationStats stats, PrintStream err) {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            stats.start();
+            Goal root = parse(MappedCharStream.read(fis.getChannel()));
+            stats.stop(CompilationStats.PARSE);
+
+            stats.start();
+            ClassDefinitions classDefs = collectDefinitions(root);
+            stats.stop(CompilationStats.CLASS_DEFINITIONS);
+
+            stats.start();
+            try {
+                typeCheck(root, classDefs, err);
+            } finally {
+                stats.stop(CompilationStats.TYPE_CHECK);
+                stats.count(classDefs);
+            }
+        } catch (ParseException ex) {
+            err.println(ex.getMessage());
+        } catch (IOException ex) {
+            err.println(ex.getMessage());
+        }
+    }
+
+    /**
+     * Same as compile, but the IR is looked up in the cache first, and parsing and code generation are skipped on a hit.
+     * The output file is only written if its contents changed.
+     */
+    private static void compileCached(String file, CompilationCache cache, CompilationStats stats, PrintStream err) {
+        try {
+            byte[] source;
+            try (FileInputStream fis = new FileInputStream(file)) {
+                source = fis.readAllBytes();
+            }
+            Path output = Paths.get(outputFileName(Paths.get(file).getFileName().toString()));
+
+            String key = cache.key(source);
+            byte[] ir = cache.lookup(key);
+            if (ir == null) {
+                stats.start();
+                Goal root = parse(ByteBuffer.wrap(source));
+                stats.stop(CompilationStats.PARSE);
+
+                stats.start();
+                ClassDefinitions classDefs = collectDefinitions(root);
+                stats.stop(CompilationStats.CLASS_DEFINITIONS);
+
+                stats.start();
+                MemoryIREmitter emitter = new MemoryIREmitter();
+                CountingIREmitter countingEmitter = new CountingIREmitter(emitter);
+                IntermidiateRepresentation intermidiateRepresentation = new IntermidiateRepresentation(classDefs, countingEmitter);
+                boolean succeeded;
+                try {
+                    succeeded = generate(root, classDefs, intermidiateRepresentation, err);
+                } catch (RuntimeException re) {
+                    /*Leave the partial output behind, as we do without the cache*/
+                    CompilationCache.writeIfChanged(output, emitter.toString().getBytes(StandardCharsets.UTF_8));
+                    throw re;
+                } finally {
+                    stats.stop(CompilationStats.CODEGEN);
+                    stats.count(classDefs, intermidiateRepresentation, countingEmitter);
+                }
+
+                ir = emitter.toString().getBytes(StandardCharsets.UTF_8);
+                if (succeeded) {
+                    cache.store(key, ir);
+                }
+            }
+            else {
+                stats.cached = true;
+                stats.outputBytes = ir.length;
             }
-         }
+
+            CompilationCache.writeIfChanged(output, ir);
+        } catch (ParseException ex) {
+            err.println(ex.getMessage());
+        } catch (IOException ex) {
+            err.println(ex.getMessage());
+        }
+    }
+
+    /*Appends one JSON object per file, so the results of many builds can be collected in the same file*/
+    private static void writeStats(List<CompilationStats> stats, Path path) {
+        StringBuilder lines = new StringBuilder();
+        for (CompilationStats fileStats : stats) {
+            lines.append(fileStats.toJson()).append('\n');
+        }
+        try {
+            Files.write(path, lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+        }
+    }
+
+    static String outputFileName(String fileName) {
+        return fileName.contains(".java") ? fileName.replace(".java", ".ll") : (fileName + ".ll");
+    }
+
+    static Goal parse(InputStream source) throws ParseException {
+        MiniJavaParser mjparser = new MiniJavaParser(source);
+        return mjparser.Goal();
+    }
+
+    /*Parses straight from the buffer when the source is plain ASCII (see MappedCharStream), with the parser of this thread*/
+    static Goal parse(ByteBuffer source) throws ParseException {
+        return ReusableParser.parse(source, compactTrees);
+    }
+
+    static ClassDefinitions collectDefinitions(Goal root) {
+        ClassDefinitions classDefs = new ClassDefinitions();
+        root.accept(classDefs, null);
+        return classDefs;
     }
 
-    public static void printErrors(List<String> errorMessages) {
+    /**
+     * Runs the code generator, the emitter of the IntermidiateRepresentation is always closed.
+     * Errors found while collecting the class definitions are printed to err.
+     * Returns false if there were such errors.
+     */
+    static boolean generate(Goal root, ClassDefinitions classDefs, IntermidiateRepresentation intermidiateRepresentation, PrintStream err) {
+        boolean failed = classDefs.getErrorMessages().size() > 0;
+
+        intermidiateRepresentation.setOptimize(optimize);
+        try {
+            root.accept(intermidiateRepresentation, null);
+        } finally {
+            intermidiateRepresentation.close();
+        }
+        /*try {
+            root.accept(intermidiateRepresentation, null);
+        } catch (RuntimeException re) {
+            classDefs.getErrorMessages().add(re.getMessage());
+            failed = true;
+        }*/
+
+        if (failed) {
+            printErrors(classDefs.getErrorMessages(), err);
+            err.println("LLVM Code Generation failed");
+            err.println();
+        }
+
+        return !failed;
+    }
+
+    /**
+     * Runs the type checker, which throws at the first type error as the code generator does.
+     * Errors found while collecting the class definitions are printed to err.
+     * Returns false if there were such errors.
+     */
+    static boolean typeCheck(Goal root, ClassDefinitions classDefs, PrintStream err) {
+        root.accept(new TypeCheck(classDefs), null);
+
+        if (classDefs.getErrorMessages().size() > 0) {
+            printErrors(classDefs.getErrorMessages(), err);
+            err.println("Type check failed");
+            err.println();
+            return false;
+        }
+
+        return true;
+    }
+
+    public static void printErrors(List<String> errorMessages, PrintStream err) {
         for (int i = 0 ; i < errorMessages.size(); i++) {
-            System.err.println(errorMessages.get(i));
+            err.println(errorMessages.get(i));
         }
     }
-}
\ No newline at end of file
+}
+
+/*Carries the errors of a file whose compilation was aborted, so they can still be printed in order*/
+class CompilationAbortedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public final transient ByteArrayOutputStream errors;
+
+    public CompilationAbortedException(ByteArrayOutputStream errors) {
+        this.errors = errors;
+    }
+}
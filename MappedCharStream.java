@@ -0,0 +1,242 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JavaCharStream that reads ASCII source straight from a ByteBuffer, usually a memory mapped file.
+ * There is no copying into a ring buffer and no unicode escape handling, and line and column numbers are only computed
+ * when the token manager asks for the position of a token (so never for white space), the same way JavaCharStream computes them.
+ * Sources with a unicode escape or with characters outside ASCII are left to JavaCharStream, see forSource.
+ */
+class MappedCharStream extends JavaCharStream {
+    /*Files smaller than this are read instead of mapped, see read*/
+    static final int MAP_THRESHOLD = 64 * 1024;
+
+    /*Thrown at the end of input, the token manager expects it all the time so there is no point in a stack trace*/
+    private static final IOException END_OF_INPUT = new IOException("End of input") {
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    };
+
+    private ByteBuffer source;
+    private int limit;
+    private byte[] image;
+
+    /*Next character to read and first character of the current token*/
+    private int position;
+    private int tokenBegin;
+
+    /*Line and column are those of the character before 'scanned'*/
+    private int scanned;
+    private int beginLine;
+    private int beginColumn;
+    private boolean beginAdjusted;
+
+    public MappedCharStream(ByteBuffer source) {
+        super(new StringReader(""), 1, 1, 1);
+        this.image = new byte[64];
+        ReInit(source);
+    }
+
+    /*Starts reading another source, which must be plain ASCII*/
+    public void ReInit(ByteBuffer source) {
+        this.source = source.slice();
+        this.limit = this.source.limit();
+        this.position = 0;
+        this.tokenBegin = 0;
+        this.scanned = 0;
+        this.line = 1;
+        this.column = 0;
+        this.prevCharIsCR = false;
+        this.prevCharIsLF = false;
+        this.beginAdjusted = false;
+    }
+
+    public static JavaCharStream forSource(ByteBuffer source) {
+        if (isPlainAscii(source)) {
+            return new MappedCharStream(source);
+        }
+        return new JavaCharStream(escapedInput(source));
+    }
+
+    /*The source as JavaCharStream reads it, for sources that are not plain ASCII*/
+    static InputStream escapedInput(ByteBuffer source) {
+        byte[] bytes = new byte[source.remaining()];
+        source.duplicate().get(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    public static MappedByteBuffer map(FileChannel channel) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    /**
+     * The contents of a file, mapped if the file is at least MAP_THRESHOLD bytes and read into a heap buffer otherwise.
+     * Mapping has a fixed cost (the mapping itself, and a direct buffer has no array for GetImage to use) that a small file
+     * never pays back, lexing small.java of benchmarks/corpus mapped takes about twice as long as from a heap buffer.
+     */
+    public static ByteBuffer read(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size >= MAP_THRESHOLD) {
+            return map(channel);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    static boolean isPlainAscii(ByteBuffer source) {
+        int end = source.limit() - 1;
+        for (int i = source.position() ; i <= end ; i++) {
+            byte b = source.get(i);
+            if (b < 0 || (b == '\\' && i < end && source.get(i + 1) == 'u')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public char BeginToken() throws IOException {
+        this.beginAdjusted = false;
+        if (this.position >= this.limit) {
+            /*The end of file token is placed on the last character, as JavaCharStream does*/
+            this.tokenBegin = this.limit - 1;
+            throw END_OF_INPUT;
+        }
+
+        this.tokenBegin = this.position;
+        return readChar();
+    }
+
+    public char readChar() throws IOException {
+        if (this.position >= this.limit) {
+            throw END_OF_INPUT;
+        }
+        return (char) (this.source.get(this.position++) & 0xff);
+    }
+
+    public void backup(int amount) {
+        this.position -= amount;
+    }
+
+    public String GetImage() {
+        int length = this.position - this.tokenBegin;
+        if (length <= 0) {
+            return "";
+        }
+        if (this.source.hasArray()) {
+            return new String(this.source.array(), this.source.arrayOffset() + this.tokenBegin, length, StandardCharsets.ISO_8859_1);
+        }
+        if (length > this.image.length) {
+            this.image = new byte[Math.max(length, this.image.length * 2)];
+        }
+        this.source.get(this.tokenBegin, this.image, 0, length);
+        return new String(this.image, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    public char[] GetSuffix(int len) {
+        char[] suffix = new char[len];
+        for (int i = 0 ; i < len ; i++) {
+            suffix[i] = (char) (this.source.get(this.position - len + i) & 0xff);
+        }
+        return suffix;
+    }
+
+    public int getBeginLine() {
+        if (this.beginAdjusted) {
+            return this.beginLine;
+        }
+        scanTo(this.tokenBegin + 1);
+        return this.line;
+    }
+
+    public int getBeginColumn() {
+        if (this.beginAdjusted) {
+            return this.beginColumn;
+        }
+        scanTo(this.tokenBegin + 1);
+        return this.column;
+    }
+
+    public int getEndLine() {
+        scanTo(this.position);
+        return this.line;
+    }
+
+    public int getEndColumn() {
+        scanTo(this.position);
+        return this.column;
+    }
+
+    @Deprecated
+    public int getLine() {
+        return getEndLine();
+    }
+
+    @Deprecated
+    public int getColumn() {
+        return getEndColumn();
+    }
+
+    public void adjustBeginLineColumn(int newLine, int newCol) {
+        this.beginLine = newLine;
+        this.beginColumn = newCol;
+        this.beginAdjusted = true;
+    }
+
+    public void Done() {
+    }
+
+    /*Brings line and column up to the character before 'target', the same way as UpdateLineColumn*/
+    private void scanTo(int target) {
+        /*Tokens are asked for in order, so this only happens if the token manager backs up over a token it has already returned*/
+        if (target < this.scanned) {
+            this.scanned = 0;
+            this.line = 1;
+            this.column = 0;
+            this.prevCharIsCR = false;
+            this.prevCharIsLF = false;
+        }
+
+        while (this.scanned < target) {
+            byte c = this.source.get(this.scanned++);
+            this.column++;
+
+            if (this.prevCharIsLF) {
+                this.prevCharIsLF = false;
+                this.line += (this.column = 1);
+            }
+            else if (this.prevCharIsCR) {
+                this.prevCharIsCR = false;
+                if (c == '\n') {
+                    this.prevCharIsLF = true;
+                }
+                else {
+                    this.line += (this.column = 1);
+                }
+            }
+
+            if (c == '\r') {
+                this.prevCharIsCR = true;
+            }
+            else if (c == '\n') {
+                this.prevCharIsLF = true;
+            }
+            else if (c == '\t') {
+                this.column--;
+                this.column += (this.tabSize - (this.column % this.tabSize));
+            }
+        }
+    }
+}
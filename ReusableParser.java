@@ -0,0 +1,57 @@
+import syntaxtree.Goal;
+import java.nio.ByteBuffer;
+
+import compact.CompactTree;
+
+/**
+ * The parser, token manager and char streams of one thread, reinitialised for every source instead of created again.
+ * Every thread that parses (the threads of --jobs, the workers of the daemon) gets its own instances.
+ * The parser holds on to the last token it has read, so the syntax tree of the last source parsed by a thread
+ * can only be collected once that thread parses something else.
+ */
+class ReusableParser {
+    private static final ThreadLocal<ReusableParser> parsers = ThreadLocal.withInitial(ReusableParser::new);
+
+    private MappedCharStream asciiStream;
+    private JavaCharStream escapedStream;
+    private MiniJavaParserTokenManager tokenManager;
+    private MiniJavaParser parser;
+
+    /*With 'compact' the type declarations are kept in a CompactTree*/
+    public static Goal parse(ByteBuffer source, boolean compact) throws ParseException {
+        return parsers.get().parseSource(source, compact);
+    }
+
+    private Goal parseSource(ByteBuffer source, boolean compact) throws ParseException {
+        JavaCharStream stream;
+        if (MappedCharStream.isPlainAscii(source)) {
+            if (this.asciiStream == null) {
+                this.asciiStream = new MappedCharStream(source);
+            }
+            else {
+                this.asciiStream.ReInit(source);
+            }
+            stream = this.asciiStream;
+        }
+        else {
+            if (this.escapedStream == null) {
+                this.escapedStream = new JavaCharStream(MappedCharStream.escapedInput(source));
+            }
+            else {
+                this.escapedStream.ReInit(MappedCharStream.escapedInput(source));
+            }
+            stream = this.escapedStream;
+        }
+
+        if (this.tokenManager == null) {
+            this.tokenManager = new MiniJavaParserTokenManager(stream);
+            this.parser = new MiniJavaParser(this.tokenManager);
+        }
+        else {
+            this.tokenManager.ReInit(stream);
+            this.parser.ReInit(this.tokenManager);
+        }
+
+        return compact ? this.parser.CompactGoal(new CompactTree()) : this.parser.Goal();
+    }
+}
@@ -0,0 +1,312 @@
+import syntaxtree.Goal;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import compact.CompactTree;
+import emitters.MemoryIREmitter;
+import visitors.*;
+
+/**
+ * Benchmarks for every phase of the compiler and for the whole pipeline.
+ * It works like JMH in average time mode: a number of warmup iterations whose results are thrown away,
+ * followed by measurement iterations, each one running the benchmark repeatedly for a fixed amount of time.
+ * Next to the time per operation it reports what the JMH gc profiler does:
+ * bytes allocated per operation, allocation rate, and the count and time of garbage collections.
+ * After the timings it reports the heap kept alive by the syntax tree of every program, as JTB nodes and as a CompactTree.
+ * lex and lexMapped compare the token manager reading through JavaCharStream and through MappedCharStream.
+ * typeCheck runs the checks of intermidiateRepresentation alone, as --check-only does.
+ * It has no dependencies besides the compiler, so it runs offline with a local build (make bench).
+ *
+ * Programs made by ProgramGenerator can be added to the corpus with --generate, e.g. --generate classes=100,depth=10,seed=3
+ *
+ * Usage: java -cp .:benchmarks/classes Benchmarks [--warmup N] [--iterations N] [--time MS] [--benchmark NAME]
+ *                                                 [--generate SPEC] ... [file.java | directory] ...
+ */
+class Benchmarks {
+    /*Results are stored here, so that the JIT cannot prove they are unused*/
+    private static volatile Object sink;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    interface Benchmark {
+        Object run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int warmupIterations = 3;
+        int measurementIterations = 5;
+        long iterationMillis = 1000;
+        String only = null;
+        List<Path> corpus = new ArrayList<Path>();
+        List<String> specs = new ArrayList<String>();
+
+        for (int i = 0 ; i < args.length ; i++) {
+            if (args[i].equals("--warmup")) {
+                warmupIterations = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--iterations")) {
+                measurementIterations = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--time")) {
+                iterationMillis = Long.parseLong(args[++i]);
+            }
+            else if (args[i].equals("--benchmark")) {
+                only = args[++i];
+            }
+            else if (args[i].equals("--generate")) {
+                specs.add(args[++i]);
+            }
+            else {
+                corpus.addAll(sources(Paths.get(args[i])));
+            }
+        }
+        if (corpus.isEmpty() && specs.isEmpty()) {
+            corpus.addAll(sources(Paths.get("benchmarks", "corpus")));
+        }
+
+        List<String> programNames = new ArrayList<String>();
+        List<byte[]> programs = new ArrayList<byte[]>();
+        List<Path> programFiles = new ArrayList<Path>();
+        for (Path file : corpus) {
+            programNames.add(file.getFileName().toString().replace(".java", ""));
+            programs.add(Files.readAllBytes(file));
+            programFiles.add(file);
+        }
+        for (String spec : specs) {
+            programNames.add(spec);
+            programs.add(ProgramGenerator.fromSpec(spec).generate().getBytes(StandardCharsets.UTF_8));
+            programFiles.add(null);
+        }
+
+        System.out.println(String.format("%-28s %-14s %5s %12s %10s %14s %12s %6s %8s",
+                "Benchmark", "Corpus", "Cnt", "Score", "Error", "Alloc", "Alloc rate", "GCs", "GC time"));
+        System.out.println(String.format("%-28s %-14s %5s %12s %10s %14s %12s %6s %8s",
+                "", "", "", "us/op", "us/op", "B/op", "MB/sec", "", "ms"));
+
+        for (int p = 0 ; p < programs.size() ; p++) {
+            final byte[] source = programs.get(p);
+            final Path file = programFiles.get(p);
+            final Goal root = Main.parse(new ByteArrayInputStream(source));
+            final ClassDefinitions classDefs = Main.collectDefinitions(root);
+            String name = programNames.get(p);
+
+            List<String> names = new ArrayList<String>();
+            List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+            /*The stream the parser used to read from, against the one it reads from now (a file as Main reads it, see MappedCharStream.read)*/
+            names.add("lex");
+            benchmarks.add(() -> {
+                try (InputStream input = input(file, source)) {
+                    return lex(new JavaCharStream(input));
+                }
+            });
+
+            names.add("lexMapped");
+            benchmarks.add(() -> lex(MappedCharStream.forSource(buffer(file, source))));
+
+            names.add("parse");
+            benchmarks.add(() -> Main.parse(new ByteArrayInputStream(source)));
+
+            /*A new parser for every source, against the parser of this thread reinitialised*/
+            names.add("parseMapped");
+            benchmarks.add(() -> new MiniJavaParser(new MiniJavaParserTokenManager(MappedCharStream.forSource(buffer(file, source)))).Goal());
+
+            names.add("parseReused");
+            benchmarks.add(() -> Main.parse(buffer(file, source)));
+
+            names.add("classDefinitions");
+            benchmarks.add(() -> Main.collectDefinitions(root));
+
+            names.add("intermidiateRepresentation");
+            benchmarks.add(() -> {
+                MemoryIREmitter emitter = new MemoryIREmitter();
+                root.accept(new IntermidiateRepresentation(classDefs, emitter), null);
+                return emitter;
+            });
+
+            /*Only the type checks of intermidiateRepresentation, as done by --check-only*/
+            names.add("typeCheck");
+            benchmarks.add(() -> {
+                TypeCheck typeCheck = new TypeCheck(classDefs);
+                root.accept(typeCheck, null);
+                return typeCheck;
+            });
+
+            names.add("endToEnd");
+            benchmarks.add(() -> {
+                Goal goal = Main.parse(buffer(file, source));
+                ClassDefinitions definitions = Main.collectDefinitions(goal);
+                MemoryIREmitter emitter = new MemoryIREmitter();
+                goal.accept(new IntermidiateRepresentation(definitions, emitter), null);
+                return emitter;
+            });
+
+            for (int i = 0 ; i < benchmarks.size() ; i++) {
+                if (only != null && !names.get(i).equals(only)) {
+                    continue;
+                }
+                measure(names.get(i), name, benchmarks.get(i), warmupIterations, measurementIterations, iterationMillis);
+            }
+        }
+
+        if (only == null || only.equals("retainedHeap")) {
+            System.out.println();
+            System.out.println(String.format("%-28s %-14s %14s %14s %8s", "Retained heap", "Corpus", "JTB", "Compact", "Ratio"));
+            System.out.println(String.format("%-28s %-14s %14s %14s %8s", "", "", "B", "B", ""));
+            for (int p = 0 ; p < programs.size() ; p++) {
+                final byte[] source = programs.get(p);
+                long jtb = retainedBytes(() -> new MiniJavaParser(new ByteArrayInputStream(source)).Goal());
+                long compact = retainedBytes(() -> new MiniJavaParser(new ByteArrayInputStream(source)).CompactGoal(new CompactTree()));
+                System.out.println(String.format("%-28s %-14s %14d %14d %8.2f", "retainedHeap", programNames.get(p), jtb, compact, (double) jtb / compact));
+            }
+        }
+    }
+
+    /*Heap still in use after a full collection, because of what the benchmark returns*/
+    private static long retainedBytes(Benchmark benchmark) throws Exception {
+        long before = usedHeapAfterGc();
+        sink = benchmark.run();
+        long after = usedHeapAfterGc();
+        sink = null;
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0 ; i < 3 ; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /*Runs the token manager alone, returns the number of tokens*/
+    private static int lex(JavaCharStream stream) {
+        MiniJavaParserTokenManager tokenManager = new MiniJavaParserTokenManager(stream);
+        int tokens = 0;
+        while (tokenManager.getNextToken().kind != MiniJavaParserConstants.EOF) {
+            tokens++;
+        }
+        return tokens;
+    }
+
+    private static InputStream input(Path file, byte[] source) throws IOException {
+        return file == null ? new ByteArrayInputStream(source) : new FileInputStream(file.toFile());
+    }
+
+    private static ByteBuffer buffer(Path file, byte[] source) throws IOException {
+        if (file == null) {
+            return ByteBuffer.wrap(source);
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            return MappedCharStream.read(channel);
+        }
+    }
+
+    private static void measure(String benchmarkName, String corpusName, Benchmark benchmark,
+                                int warmupIterations, int measurementIterations, long iterationMillis) throws Exception {
+        for (int i = 0 ; i < warmupIterations ; i++) {
+            iteration(benchmark, iterationMillis);
+        }
+
+        double[] scores = new double[measurementIterations];
+        long operations = 0;
+        long elapsed = 0;
+        long allocated = 0;
+        long gcCount = 0;
+        long gcTime = 0;
+        for (int i = 0 ; i < measurementIterations ; i++) {
+            long[] result = iteration(benchmark, iterationMillis);
+            scores[i] = (result[1] / 1000.0) / result[0];
+            operations += result[0];
+            elapsed += result[1];
+            allocated += result[2];
+            gcCount += result[3];
+            gcTime += result[4];
+        }
+
+        double mean = 0;
+        for (double score : scores) {
+            mean += score;
+        }
+        mean /= scores.length;
+        double variance = 0;
+        for (double score : scores) {
+            variance += (score - mean) * (score - mean);
+        }
+        double error = scores.length > 1 ? Math.sqrt(variance / (scores.length - 1)) : Double.NaN;
+
+        System.out.println(String.format("%-28s %-14s %5d %12.3f %10.3f %14.1f %12.3f %6d %8d",
+                benchmarkName, corpusName, measurementIterations, mean, error,
+                (double) allocated / operations,
+                (allocated / (1024.0 * 1024.0)) / (elapsed / 1e9),
+                gcCount, gcTime));
+    }
+
+    /*Returns operations, elapsed nanoseconds, allocated bytes, gc count and gc time of one iteration*/
+    private static long[] iteration(Benchmark benchmark, long iterationMillis) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + iterationMillis * 1000000;
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        long operations = 0;
+        long now;
+        do {
+            sink = benchmark.run();
+            operations++;
+            now = System.nanoTime();
+        } while (now < deadline);
+
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new long[]{operations, now - start, allocated, gcCount() - gcCountBefore, gcTime() - gcTimeBefore};
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static List<Path> sources(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Collections.singletonList(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(file -> file.toString().endsWith(".java")).sorted(Benchmarks::bySize).collect(Collectors.toList());
+        }
+    }
+
+    private static int bySize(Path lhs, Path rhs) {
+        try {
+            return Long.compare(Files.size(lhs), Files.size(rhs));
+        } catch (IOException ex) {
+            return lhs.compareTo(rhs);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates valid MiniJava programs of a given shape, the same seed and parameters always give the same program.
+ * Classes form chains of 'depth' classes, each one extending the previous, the first method of every class
+ * overrides the first method of the root of its chain.
+ * Every method has 'parameters' int parameters and 'statements' random statements, whose expressions are nested 'nesting' times.
+ * A method calls at most one method that is not an override, and only methods declared before it,
+ * so the programs also terminate when they are run.
+ *
+ * Usage: java -cp benchmarks/classes ProgramGenerator [--seed N] [--classes N] [--depth N] [--methods N]
+ *                                                     [--parameters N] [--nesting N] [--statements N] [--output FILE]
+ */
+class ProgramGenerator {
+    private static final int LOCALS = 4;
+    private static final int ARRAY_SIZE = 10;
+
+    public long seed = 1;
+    public int classes = 10;
+    public int depth = 3;
+    public int methods = 5;
+    public int parameters = 2;
+    public int nesting = 3;
+    public int statements = 10;
+
+    private Random random;
+    private StringBuilder out;
+
+    public static void main(String[] args) throws IOException {
+        ProgramGenerator generator = new ProgramGenerator();
+        String output = null;
+        for (int i = 0 ; i < args.length ; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                System.err.println("Usage: java ProgramGenerator [--seed N] [--classes N] [--depth N] [--methods N] [--parameters N] [--nesting N] [--statements N] [--output FILE]");
+                System.exit(-1);
+            }
+            if (args[i].equals("--output")) {
+                output = args[++i];
+            }
+            else {
+                generator.set(args[i].substring(2), args[++i]);
+            }
+        }
+
+        String program = generator.generate();
+        if (output == null) {
+            System.out.print(program);
+        }
+        else {
+            Files.write(Paths.get(output), program.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /*Parses a comma separated list of parameters, like classes=100,depth=10,seed=7*/
+    public static ProgramGenerator fromSpec(String spec) {
+        ProgramGenerator generator = new ProgramGenerator();
+        for (String parameter : spec.split(",")) {
+            String[] tokens = parameter.split("=");
+            if (tokens.length != 2) {
+                throw new IllegalArgumentException("Expected name=value, found " + parameter);
+            }
+            generator.set(tokens[0], tokens[1]);
+        }
+        return generator;
+    }
+
+    public void set(String name, String value) {
+        if (name.equals("seed")) {
+            this.seed = Long.parseLong(value);
+            return;
+        }
+
+        int number = Integer.parseInt(value);
+        if (number < 0 || (name.equals("depth") && number == 0)) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
+        switch (name) {
+            case "classes": this.classes = number; break;
+            case "depth": this.depth = number; break;
+            case "methods": this.methods = number; break;
+            case "parameters": this.parameters = number; break;
+            case "nesting": this.nesting = number; break;
+            case "statements": this.statements = number; break;
+            default: throw new IllegalArgumentException("Unknown parameter " + name);
+        }
+    }
+
+    public String generate() {
+        this.random = new Random(this.seed);
+        this.out = new StringBuilder(1024);
+
+        this.out.append("class Generated {\n");
+        this.out.append("    public static void main(String[] a) {\n");
+        for (int c = 0 ; c < this.classes && this.methods > 0 ; c++) {
+            this.out.append("        System.out.println(new C").append(c).append("().").append(methodName(c, this.methods - 1))
+                    .append("(").append(arguments(c)).append("));\n");
+        }
+        this.out.append("    }\n");
+        this.out.append("}\n");
+
+        for (int c = 0 ; c < this.classes ; c++) {
+            generateClass(c);
+        }
+
+        return this.out.toString();
+    }
+
+    private int root(int c) {
+        return c - c % this.depth;
+    }
+
+    private String methodName(int c, int method) {
+        return method == 0 ? ("m" + root(c) + "_0") : ("m" + c + "_" + method);
+    }
+
+    private void generateClass(int c) {
+        this.out.append("\nclass C").append(c);
+        if (c != root(c)) {
+            this.out.append(" extends C").append(c - 1);
+        }
+        this.out.append(" {\n");
+        this.out.append("    int f").append(c).append(";\n");
+        this.out.append("    boolean g").append(c).append(";\n");
+
+        for (int method = 0 ; method < this.methods ; method++) {
+            this.out.append("\n");
+            generateMethod(c, method);
+        }
+        this.out.append("}\n");
+    }
+
+    private void generateMethod(int c, int method) {
+        this.out.append("    public int ").append(methodName(c, method)).append("(");
+        for (int p = 0 ; p < this.parameters ; p++) {
+            this.out.append(p == 0 ? "" : ", ").append("int p").append(p);
+        }
+        this.out.append(") {\n");
+
+        for (int v = 0 ; v < LOCALS ; v++) {
+            this.out.append("        int v").append(v).append(";\n");
+        }
+        this.out.append("        boolean b0;\n");
+        this.out.append("        int[] a0;\n");
+        this.out.append("        a0 = new int[").append(ARRAY_SIZE).append("];\n");
+        for (int v = 0 ; v < LOCALS ; v++) {
+            this.out.append("        v").append(v).append(" = ").append(v).append(";\n");
+        }
+        this.out.append("        b0 = true;\n");
+
+        /*Overrides are leaves, everything else may call them, and call one of the methods declared before*/
+        List<String> callees = new ArrayList<String>();
+        if (method > 0) {
+            for (int ancestor = root(c) ; ancestor < c ; ancestor++) {
+                for (int m = 1 ; m < this.methods ; m++) {
+                    callees.add(methodName(ancestor, m));
+                }
+            }
+            for (int m = 1 ; m < method ; m++) {
+                callees.add(methodName(c, m));
+            }
+        }
+        boolean called = false;
+
+        for (int s = 0 ; s < this.statements ; s++) {
+            int kind = this.random.nextInt(8);
+            if (kind == 7 && method > 0) {
+                String callee;
+                if (!called && callees.size() > 0 && this.random.nextBoolean()) {
+                    callee = callees.get(this.random.nextInt(callees.size()));
+                    called = true;
+                }
+                else {
+                    callee = methodName(c, 0);
+                }
+                this.out.append("        v").append(this.random.nextInt(LOCALS)).append(" = this.").append(callee)
+                        .append("(").append(arguments(c)).append(");\n");
+                continue;
+            }
+            generateStatement(c, kind);
+        }
+
+        this.out.append("        return ").append(intExpression(c, this.nesting)).append(";\n");
+        this.out.append("    }\n");
+    }
+
+    private void generateStatement(int c, int kind) {
+        String local = "v" + this.random.nextInt(LOCALS);
+        switch (kind) {
+            case 0:
+                this.out.append("        ").append(local).append(" = ").append(intExpression(c, this.nesting)).append(";\n");
+                break;
+            case 1:
+                this.out.append("        if (").append(booleanExpression(c, this.nesting)).append(") {\n");
+                this.out.append("            ").append(local).append(" = ").append(intExpression(c, this.nesting)).append(";\n");
+                this.out.append("        } else {\n");
+                this.out.append("            ").append(local).append(" = ").append(intExpression(c, this.nesting)).append(";\n");
+                this.out.append("        }\n");
+                break;
+            case 2:
+                this.out.append("        {\n");
+                this.out.append("            ").append(local).append(" = 0;\n");
+                this.out.append("            while (").append(local).append(" < ").append(1 + this.random.nextInt(ARRAY_SIZE)).append(") {\n");
+                this.out.append("                a0[").append(local).append("] = ").append(intExpression(c, this.nesting)).append(";\n");
+                this.out.append("                ").append(local).append(" = ").append(local).append(" + 1;\n");
+                this.out.append("            }\n");
+                this.out.append("        }\n");
+                break;
+            case 3:
+                this.out.append("        a0[").append(this.random.nextInt(ARRAY_SIZE)).append("] = ").append(intExpression(c, this.nesting)).append(";\n");
+                break;
+            case 4:
+                this.out.append("        System.out.println(").append(intExpression(c, this.nesting)).append(");\n");
+                break;
+            case 5:
+                this.out.append("        b0 = ").append(booleanExpression(c, this.nesting)).append(";\n");
+                break;
+            default:
+                this.out.append("        ").append(field(c, "f")).append(" = ").append(intExpression(c, this.nesting)).append(";\n");
+                break;
+        }
+    }
+
+    /*A field of the class or of one of its ancestors*/
+    private String field(int c, String prefix) {
+        return prefix + (root(c) + this.random.nextInt(c - root(c) + 1));
+    }
+
+    private String intOperand(int c) {
+        switch (this.random.nextInt(6)) {
+            case 0: return Integer.toString(this.random.nextInt(100));
+            case 1: return this.parameters > 0 ? ("p" + this.random.nextInt(this.parameters)) : "1";
+            case 2: return field(c, "f");
+            case 3: return "(a0[" + this.random.nextInt(ARRAY_SIZE) + "])";
+            case 4: return "(a0.length)";
+            default: return "v" + this.random.nextInt(LOCALS);
+        }
+    }
+
+    /*Operands of binary expressions must be primary expressions, so nested expressions go in brackets*/
+    private String intExpression(int c, int nesting) {
+        if (nesting == 0) {
+            return intOperand(c);
+        }
+        String[] operators = {" + ", " - ", " * "};
+        return intOperand(c) + operators[this.random.nextInt(operators.length)] + "(" + intExpression(c, nesting - 1) + ")";
+    }
+
+    private String booleanExpression(int c, int nesting) {
+        switch (this.random.nextInt(3)) {
+            case 0:
+                return intOperand(c) + " < (" + intExpression(c, Math.max(0, nesting - 1)) + ")";
+            case 1:
+                return field(c, "g") + " && (" + intOperand(c) + " < " + intOperand(c) + ")";
+            default:
+                return "!(b0)";
+        }
+    }
+
+    private String arguments(int c) {
+        StringBuilder arguments = new StringBuilder();
+        for (int p = 0 ; p < this.parameters ; p++) {
+            arguments.append(p == 0 ? "" : ", ").append(this.random.nextInt(10));
+        }
+        return arguments.toString();
+    }
+}
@@ -0,0 +1,3818 @@
+class Large {
+    public static void main(String[] a) {
+        System.out.println(new Runner().Run(25));
+    }
+}
+
+class Runner {
+    public int Run(int n) {
+        int total;
+        int r;
+        Node0 v0;
+        Node1 v1;
+        Node2 v2;
+        Node3 v3;
+        Node4 v4;
+        Node5 v5;
+        Node6 v6;
+        Node7 v7;
+        Node8 v8;
+        Node9 v9;
+        Node10 v10;
+        Node11 v11;
+        Node12 v12;
+        Node13 v13;
+        Node14 v14;
+        Node15 v15;
+        Node16 v16;
+        Node17 v17;
+        Node18 v18;
+        Node19 v19;
+        Node20 v20;
+        Node21 v21;
+        Node22 v22;
+        Node23 v23;
+        Node24 v24;
+        Node25 v25;
+        Node26 v26;
+        Node27 v27;
+        Node28 v28;
+        Node29 v29;
+        Node30 v30;
+        Node31 v31;
+        Node32 v32;
+        Node33 v33;
+        Node34 v34;
+        Node35 v35;
+        Node36 v36;
+        Node37 v37;
+        Node38 v38;
+        Node39 v39;
+        Node40 v40;
+        Node41 v41;
+        Node42 v42;
+        Node43 v43;
+        Node44 v44;
+        Node45 v45;
+        Node46 v46;
+        Node47 v47;
+        total = 0;
+        v0 = new Node0();
+        r = v0.Setup(n);
+        r = v0.Compute(n, 1);
+        total = total + r;
+        v1 = new Node1();
+        r = v1.Setup(n);
+        r = v1.Compute(n, 2);
+        total = total + r;
+        v2 = new Node2();
+        r = v2.Setup(n);
+        r = v2.Compute(n, 3);
+        total = total + r;
+        v3 = new Node3();
+        r = v3.Setup(n);
+        r = v3.Compute(n, 4);
+        total = total + r;
+        v4 = new Node4();
+        r = v4.Setup(n);
+        r = v4.Compute(n, 5);
+        total = total + r;
+        v5 = new Node5();
+        r = v5.Setup(n);
+        r = v5.Compute(n, 6);
+        total = total + r;
+        v6 = new Node6();
+        r = v6.Setup(n);
+        r = v6.Compute(n, 7);
+        total = total + r;
+        v7 = new Node7();
+        r = v7.Setup(n);
+        r = v7.Compute(n, 8);
+        total = total + r;
+        v8 = new Node8();
+        r = v8.Setup(n);
+        r = v8.Compute(n, 9);
+        total = total + r;
+        v9 = new Node9();
+        r = v9.Setup(n);
+        r = v9.Compute(n, 10);
+        total = total + r;
+        v10 = new Node10();
+        r = v10.Setup(n);
+        r = v10.Compute(n, 11);
+        total = total + r;
+        v11 = new Node11();
+        r = v11.Setup(n);
+        r = v11.Compute(n, 12);
+        total = total + r;
+        v12 = new Node12();
+        r = v12.Setup(n);
+        r = v12.Compute(n, 13);
+        total = total + r;
+        v13 = new Node13();
+        r = v13.Setup(n);
+        r = v13.Compute(n, 14);
+        total = total + r;
+        v14 = new Node14();
+        r = v14.Setup(n);
+        r = v14.Compute(n, 15);
+        total = total + r;
+        v15 = new Node15();
+        r = v15.Setup(n);
+        r = v15.Compute(n, 16);
+        total = total + r;
+        v16 = new Node16();
+        r = v16.Setup(n);
+        r = v16.Compute(n, 17);
+        total = total + r;
+        v17 = new Node17();
+        r = v17.Setup(n);
+        r = v17.Compute(n, 18);
+        total = total + r;
+        v18 = new Node18();
+        r = v18.Setup(n);
+        r = v18.Compute(n, 19);
+        total = total + r;
+        v19 = new Node19();
+        r = v19.Setup(n);
+        r = v19.Compute(n, 20);
+        total = total + r;
+        v20 = new Node20();
+        r = v20.Setup(n);
+        r = v20.Compute(n, 21);
+        total = total + r;
+        v21 = new Node21();
+        r = v21.Setup(n);
+        r = v21.Compute(n, 22);
+        total = total + r;
+        v22 = new Node22();
+        r = v22.Setup(n);
+        r = v22.Compute(n, 23);
+        total = total + r;
+        v23 = new Node23();
+        r = v23.Setup(n);
+        r = v23.Compute(n, 24);
+        total = total + r;
+        v24 = new Node24();
+        r = v24.Setup(n);
+        r = v24.Compute(n, 25);
+        total = total + r;
+        v25 = new Node25();
+        r = v25.Setup(n);
+        r = v25.Compute(n, 26);
+        total = total + r;
+        v26 = new Node26();
+        r = v26.Setup(n);
+        r = v26.Compute(n, 27);
+        total = total + r;
+        v27 = new Node27();
+        r = v27.Setup(n);
+        r = v27.Compute(n, 28);
+        total = total + r;
+        v28 = new Node28();
+        r = v28.Setup(n);
+        r = v28.Compute(n, 29);
+        total = total + r;
+        v29 = new Node29();
+        r = v29.Setup(n);
+        r = v29.Compute(n, 30);
+        total = total + r;
+        v30 = new Node30();
+        r = v30.Setup(n);
+        r = v30.Compute(n, 31);
+        total = total + r;
+        v31 = new Node31();
+        r = v31.Setup(n);
+        r = v31.Compute(n, 32);
+        total = total + r;
+        v32 = new Node32();
+        r = v32.Setup(n);
+        r = v32.Compute(n, 33);
+        total = total + r;
+        v33 = new Node33();
+        r = v33.Setup(n);
+        r = v33.Compute(n, 34);
+        total = total + r;
+        v34 = new Node34();
+        r = v34.Setup(n);
+        r = v34.Compute(n, 35);
+        total = total + r;
+        v35 = new Node35();
+        r = v35.Setup(n);
+        r = v35.Compute(n, 36);
+        total = total + r;
+        v36 = new Node36();
+        r = v36.Setup(n);
+        r = v36.Compute(n, 37);
+        total = total + r;
+        v37 = new Node37();
+        r = v37.Setup(n);
+        r = v37.Compute(n, 38);
+        total = total + r;
+        v38 = new Node38();
+        r = v38.Setup(n);
+        r = v38.Compute(n, 39);
+        total = total + r;
+        v39 = new Node39();
+        r = v39.Setup(n);
+        r = v39.Compute(n, 40);
+        total = total + r;
+        v40 = new Node40();
+        r = v40.Setup(n);
+        r = v40.Compute(n, 41);
+        total = total + r;
+        v41 = new Node41();
+        r = v41.Setup(n);
+        r = v41.Compute(n, 42);
+        total = total + r;
+        v42 = new Node42();
+        r = v42.Setup(n);
+        r = v42.Compute(n, 43);
+        total = total + r;
+        v43 = new Node43();
+        r = v43.Setup(n);
+        r = v43.Compute(n, 44);
+        total = total + r;
+        v44 = new Node44();
+        r = v44.Setup(n);
+        r = v44.Compute(n, 45);
+        total = total + r;
+        v45 = new Node45();
+        r = v45.Setup(n);
+        r = v45.Compute(n, 46);
+        total = total + r;
+        v46 = new Node46();
+        r = v46.Setup(n);
+        r = v46.Compute(n, 47);
+        total = total + r;
+        v47 = new Node47();
+        r = v47.Setup(n);
+        r = v47.Compute(n, 48);
+        total = total + r;
+        return total;
+    }
+}
+
+class Node0 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc0;
+    boolean flag0;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step0(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check0(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc0 = s;
+        flag0 = !(s < 0);
+        return s;
+    }
+
+    public int Step0(int i, int s) {
+        int r;
+        int q;
+        r = i * 7;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check0(int s) {
+        boolean r;
+        int h;
+        h = s - 7;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix0(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node1 extends Node0 {
+    int acc1;
+    boolean flag1;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step1(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check1(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc1 = s;
+        flag1 = !(s < 0);
+        return s;
+    }
+
+    public int Step1(int i, int s) {
+        int r;
+        int q;
+        r = i * 4;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check1(int s) {
+        boolean r;
+        int h;
+        h = s - 4;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix1(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node2 extends Node1 {
+    int acc2;
+    boolean flag2;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step2(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check2(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc2 = s;
+        flag2 = !(s < 0);
+        return s;
+    }
+
+    public int Step2(int i, int s) {
+        int r;
+        int q;
+        r = i * 8;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check2(int s) {
+        boolean r;
+        int h;
+        h = s - 8;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix2(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node3 extends Node2 {
+    int acc3;
+    boolean flag3;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step3(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check3(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc3 = s;
+        flag3 = !(s < 0);
+        return s;
+    }
+
+    public int Step3(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check3(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix3(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node4 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc4;
+    boolean flag4;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step4(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check4(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc4 = s;
+        flag4 = !(s < 0);
+        return s;
+    }
+
+    public int Step4(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check4(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix4(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node5 extends Node4 {
+    int acc5;
+    boolean flag5;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step5(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check5(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc5 = s;
+        flag5 = !(s < 0);
+        return s;
+    }
+
+    public int Step5(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check5(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix5(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node6 extends Node5 {
+    int acc6;
+    boolean flag6;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step6(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check6(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc6 = s;
+        flag6 = !(s < 0);
+        return s;
+    }
+
+    public int Step6(int i, int s) {
+        int r;
+        int q;
+        r = i * 7;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check6(int s) {
+        boolean r;
+        int h;
+        h = s - 7;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix6(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node7 extends Node6 {
+    int acc7;
+    boolean flag7;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step7(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check7(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc7 = s;
+        flag7 = !(s < 0);
+        return s;
+    }
+
+    public int Step7(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check7(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix7(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node8 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc8;
+    boolean flag8;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step8(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check8(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc8 = s;
+        flag8 = !(s < 0);
+        return s;
+    }
+
+    public int Step8(int i, int s) {
+        int r;
+        int q;
+        r = i * 5;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check8(int s) {
+        boolean r;
+        int h;
+        h = s - 5;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix8(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node9 extends Node8 {
+    int acc9;
+    boolean flag9;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step9(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check9(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc9 = s;
+        flag9 = !(s < 0);
+        return s;
+    }
+
+    public int Step9(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check9(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix9(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node10 extends Node9 {
+    int acc10;
+    boolean flag10;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step10(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check10(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc10 = s;
+        flag10 = !(s < 0);
+        return s;
+    }
+
+    public int Step10(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check10(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix10(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node11 extends Node10 {
+    int acc11;
+    boolean flag11;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step11(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check11(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc11 = s;
+        flag11 = !(s < 0);
+        return s;
+    }
+
+    public int Step11(int i, int s) {
+        int r;
+        int q;
+        r = i * 8;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check11(int s) {
+        boolean r;
+        int h;
+        h = s - 8;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix11(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node12 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc12;
+    boolean flag12;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step12(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check12(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc12 = s;
+        flag12 = !(s < 0);
+        return s;
+    }
+
+    public int Step12(int i, int s) {
+        int r;
+        int q;
+        r = i * 8;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check12(int s) {
+        boolean r;
+        int h;
+        h = s - 8;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix12(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node13 extends Node12 {
+    int acc13;
+    boolean flag13;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step13(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check13(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc13 = s;
+        flag13 = !(s < 0);
+        return s;
+    }
+
+    public int Step13(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check13(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix13(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node14 extends Node13 {
+    int acc14;
+    boolean flag14;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step14(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check14(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc14 = s;
+        flag14 = !(s < 0);
+        return s;
+    }
+
+    public int Step14(int i, int s) {
+        int r;
+        int q;
+        r = i * 5;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check14(int s) {
+        boolean r;
+        int h;
+        h = s - 5;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix14(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node15 extends Node14 {
+    int acc15;
+    boolean flag15;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step15(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check15(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc15 = s;
+        flag15 = !(s < 0);
+        return s;
+    }
+
+    public int Step15(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check15(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix15(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node16 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc16;
+    boolean flag16;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step16(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check16(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc16 = s;
+        flag16 = !(s < 0);
+        return s;
+    }
+
+    public int Step16(int i, int s) {
+        int r;
+        int q;
+        r = i * 8;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check16(int s) {
+        boolean r;
+        int h;
+        h = s - 8;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix16(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node17 extends Node16 {
+    int acc17;
+    boolean flag17;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step17(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check17(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc17 = s;
+        flag17 = !(s < 0);
+        return s;
+    }
+
+    public int Step17(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check17(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix17(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node18 extends Node17 {
+    int acc18;
+    boolean flag18;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step18(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check18(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc18 = s;
+        flag18 = !(s < 0);
+        return s;
+    }
+
+    public int Step18(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check18(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix18(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node19 extends Node18 {
+    int acc19;
+    boolean flag19;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step19(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check19(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc19 = s;
+        flag19 = !(s < 0);
+        return s;
+    }
+
+    public int Step19(int i, int s) {
+        int r;
+        int q;
+        r = i * 5;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check19(int s) {
+        boolean r;
+        int h;
+        h = s - 5;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix19(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node20 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc20;
+    boolean flag20;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step20(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check20(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc20 = s;
+        flag20 = !(s < 0);
+        return s;
+    }
+
+    public int Step20(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check20(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix20(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node21 extends Node20 {
+    int acc21;
+    boolean flag21;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step21(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check21(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc21 = s;
+        flag21 = !(s < 0);
+        return s;
+    }
+
+    public int Step21(int i, int s) {
+        int r;
+        int q;
+        r = i * 8;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check21(int s) {
+        boolean r;
+        int h;
+        h = s - 8;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix21(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node22 extends Node21 {
+    int acc22;
+    boolean flag22;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step22(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check22(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc22 = s;
+        flag22 = !(s < 0);
+        return s;
+    }
+
+    public int Step22(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check22(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix22(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node23 extends Node22 {
+    int acc23;
+    boolean flag23;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step23(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check23(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc23 = s;
+        flag23 = !(s < 0);
+        return s;
+    }
+
+    public int Step23(int i, int s) {
+        int r;
+        int q;
+        r = i * 5;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check23(int s) {
+        boolean r;
+        int h;
+        h = s - 5;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix23(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node24 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc24;
+    boolean flag24;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step24(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check24(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc24 = s;
+        flag24 = !(s < 0);
+        return s;
+    }
+
+    public int Step24(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check24(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix24(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node25 extends Node24 {
+    int acc25;
+    boolean flag25;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step25(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check25(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc25 = s;
+        flag25 = !(s < 0);
+        return s;
+    }
+
+    public int Step25(int i, int s) {
+        int r;
+        int q;
+        r = i * 4;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check25(int s) {
+        boolean r;
+        int h;
+        h = s - 4;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix25(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node26 extends Node25 {
+    int acc26;
+    boolean flag26;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step26(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check26(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc26 = s;
+        flag26 = !(s < 0);
+        return s;
+    }
+
+    public int Step26(int i, int s) {
+        int r;
+        int q;
+        r = i * 6;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check26(int s) {
+        boolean r;
+        int h;
+        h = s - 6;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix26(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node27 extends Node26 {
+    int acc27;
+    boolean flag27;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step27(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check27(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc27 = s;
+        flag27 = !(s < 0);
+        return s;
+    }
+
+    public int Step27(int i, int s) {
+        int r;
+        int q;
+        r = i * 8;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check27(int s) {
+        boolean r;
+        int h;
+        h = s - 8;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix27(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node28 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc28;
+    boolean flag28;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step28(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check28(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc28 = s;
+        flag28 = !(s < 0);
+        return s;
+    }
+
+    public int Step28(int i, int s) {
+        int r;
+        int q;
+        r = i * 4;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check28(int s) {
+        boolean r;
+        int h;
+        h = s - 4;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix28(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node29 extends Node28 {
+    int acc29;
+    boolean flag29;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step29(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check29(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc29 = s;
+        flag29 = !(s < 0);
+        return s;
+    }
+
+    public int Step29(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check29(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix29(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node30 extends Node29 {
+    int acc30;
+    boolean flag30;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step30(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check30(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc30 = s;
+        flag30 = !(s < 0);
+        return s;
+    }
+
+    public int Step30(int i, int s) {
+        int r;
+        int q;
+        r = i * 6;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check30(int s) {
+        boolean r;
+        int h;
+        h = s - 6;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix30(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node31 extends Node30 {
+    int acc31;
+    boolean flag31;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step31(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check31(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc31 = s;
+        flag31 = !(s < 0);
+        return s;
+    }
+
+    public int Step31(int i, int s) {
+        int r;
+        int q;
+        r = i * 4;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check31(int s) {
+        boolean r;
+        int h;
+        h = s - 4;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix31(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node32 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc32;
+    boolean flag32;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step32(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check32(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc32 = s;
+        flag32 = !(s < 0);
+        return s;
+    }
+
+    public int Step32(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check32(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix32(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node33 extends Node32 {
+    int acc33;
+    boolean flag33;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step33(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check33(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc33 = s;
+        flag33 = !(s < 0);
+        return s;
+    }
+
+    public int Step33(int i, int s) {
+        int r;
+        int q;
+        r = i * 5;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check33(int s) {
+        boolean r;
+        int h;
+        h = s - 5;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix33(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node34 extends Node33 {
+    int acc34;
+    boolean flag34;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step34(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check34(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc34 = s;
+        flag34 = !(s < 0);
+        return s;
+    }
+
+    public int Step34(int i, int s) {
+        int r;
+        int q;
+        r = i * 7;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check34(int s) {
+        boolean r;
+        int h;
+        h = s - 7;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix34(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node35 extends Node34 {
+    int acc35;
+    boolean flag35;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step35(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check35(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc35 = s;
+        flag35 = !(s < 0);
+        return s;
+    }
+
+    public int Step35(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check35(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix35(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node36 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc36;
+    boolean flag36;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step36(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check36(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc36 = s;
+        flag36 = !(s < 0);
+        return s;
+    }
+
+    public int Step36(int i, int s) {
+        int r;
+        int q;
+        r = i * 3;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check36(int s) {
+        boolean r;
+        int h;
+        h = s - 3;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix36(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node37 extends Node36 {
+    int acc37;
+    boolean flag37;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step37(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check37(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc37 = s;
+        flag37 = !(s < 0);
+        return s;
+    }
+
+    public int Step37(int i, int s) {
+        int r;
+        int q;
+        r = i * 2;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check37(int s) {
+        boolean r;
+        int h;
+        h = s - 2;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix37(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node38 extends Node37 {
+    int acc38;
+    boolean flag38;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step38(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check38(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc38 = s;
+        flag38 = !(s < 0);
+        return s;
+    }
+
+    public int Step38(int i, int s) {
+        int r;
+        int q;
+        r = i * 5;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check38(int s) {
+        boolean r;
+        int h;
+        h = s - 5;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix38(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node39 extends Node38 {
+    int acc39;
+    boolean flag39;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step39(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check39(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc39 = s;
+        flag39 = !(s < 0);
+        return s;
+    }
+
+    public int Step39(int i, int s) {
+        int r;
+        int q;
+        r = i * 9;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check39(int s) {
+        boolean r;
+        int h;
+        h = s - 9;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix39(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node40 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc40;
+    boolean flag40;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step40(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check40(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc40 = s;
+        flag40 = !(s < 0);
+        return s;
+    }
+
+    public int Step40(int i, int s) {
+        int r;
+        int q;
+        r = i * 8;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check40(int s) {
+        boolean r;
+        int h;
+        h = s - 8;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix40(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node41 extends Node40 {
+    int acc41;
+    boolean flag41;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step41(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check41(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc41 = s;
+        flag41 = !(s < 0);
+        return s;
+    }
+
+    public int Step41(int i, int s) {
+        int r;
+        int q;
+        r = i * 7;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check41(int s) {
+        boolean r;
+        int h;
+        h = s - 7;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix41(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node42 extends Node41 {
+    int acc42;
+    boolean flag42;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step42(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check42(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc42 = s;
+        flag42 = !(s < 0);
+        return s;
+    }
+
+    public int Step42(int i, int s) {
+        int r;
+        int q;
+        r = i * 9;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check42(int s) {
+        boolean r;
+        int h;
+        h = s - 9;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix42(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node43 extends Node42 {
+    int acc43;
+    boolean flag43;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step43(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check43(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc43 = s;
+        flag43 = !(s < 0);
+        return s;
+    }
+
+    public int Step43(int i, int s) {
+        int r;
+        int q;
+        r = i * 9;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check43(int s) {
+        boolean r;
+        int h;
+        h = s - 9;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix43(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node44 {
+    int[] values;
+    boolean[] marks;
+    int count;
+    int acc44;
+    boolean flag44;
+
+    public int Setup(int n) {
+        int i;
+        values = new int[n];
+        marks = new boolean[n];
+        i = 0;
+        while (i < n) {
+            values[i] = (i * 3) + 1;
+            marks[i] = (i < 7) && !(i < 2);
+            i = i + 1;
+        }
+        count = n;
+        return n;
+    }
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step44(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check44(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc44 = s;
+        flag44 = !(s < 0);
+        return s;
+    }
+
+    public int Step44(int i, int s) {
+        int r;
+        int q;
+        r = i * 7;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check44(int s) {
+        boolean r;
+        int h;
+        h = s - 7;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix44(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node45 extends Node44 {
+    int acc45;
+    boolean flag45;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step45(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check45(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc45 = s;
+        flag45 = !(s < 0);
+        return s;
+    }
+
+    public int Step45(int i, int s) {
+        int r;
+        int q;
+        r = i * 6;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check45(int s) {
+        boolean r;
+        int h;
+        h = s - 6;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix45(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node46 extends Node45 {
+    int acc46;
+    boolean flag46;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step46(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check46(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc46 = s;
+        flag46 = !(s < 0);
+        return s;
+    }
+
+    public int Step46(int i, int s) {
+        int r;
+        int q;
+        r = i * 5;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check46(int s) {
+        boolean r;
+        int h;
+        h = s - 5;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix46(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
+
+class Node47 extends Node46 {
+    int acc47;
+    boolean flag47;
+
+    public int Compute(int n, int seed) {
+        int i;
+        int s;
+        int t;
+        int u;
+        boolean b;
+        s = seed;
+        i = 0;
+        while (i < n) {
+            t = this.Step47(i, s);
+            u = t * 2;
+            if (u < s) {
+                s = s - t;
+            } else {
+                s = s + (t - i);
+            }
+            b = this.Check47(s);
+            if (b && (i < 10)) {
+                s = s + 1;
+            } else {
+                s = s - 1;
+            }
+            i = i + 1;
+        }
+        acc47 = s;
+        flag47 = !(s < 0);
+        return s;
+    }
+
+    public int Step47(int i, int s) {
+        int r;
+        int q;
+        r = i * 4;
+        q = s - r;
+        if (q < 0) {
+            q = 0 - q;
+        } else {
+            q = q + 1;
+        }
+        return q;
+    }
+
+    public boolean Check47(int s) {
+        boolean r;
+        int h;
+        h = s - 4;
+        r = (0 < h) && (h < 1000);
+        return r;
+    }
+
+    public int Mix47(int a, int b, int c) {
+        int x;
+        int y;
+        int z;
+        x = a * b;
+        y = x - c;
+        z = y + (a * (b - c));
+        while (z < 0) {
+            z = z + (x * 2);
+            x = x + 1;
+        }
+        return z;
+    }
+
+}
@@ -0,0 +1,306 @@
+class Medium {
+    public static void main(String[] a) {
+        System.out.println(new Driver().Run(40));
+    }
+}
+
+class Driver {
+    public int Run(int size) {
+        Sorter sorter;
+        Searcher searcher;
+        List list;
+        Shape shape;
+        int result;
+        int found;
+        int area;
+
+        sorter = new BubbleSorter();
+        result = sorter.Init(size);
+        result = sorter.Sort();
+        result = sorter.Print();
+
+        searcher = new Searcher();
+        found = searcher.Init(size);
+        found = searcher.Search(8);
+        System.out.println(found);
+        found = searcher.Search(19);
+        System.out.println(found);
+
+        list = new List();
+        result = list.Build(size);
+        System.out.println(list.Sum());
+
+        shape = new Square();
+        area = shape.Init(7);
+        area = shape.Area();
+        System.out.println(area);
+        shape = new Rectangle();
+        area = shape.Init(3);
+        area = shape.Area();
+        System.out.println(area);
+
+        return result + area;
+    }
+}
+
+class Sorter {
+    int[] number;
+    int size;
+
+    public int Init(int sz) {
+        int i;
+        int j;
+        size = sz;
+        number = new int[sz];
+        i = 0;
+        j = sz;
+        while (i < sz) {
+            number[i] = (j * 7) - ((j * 3) * 2);
+            i = i + 1;
+            j = j - 1;
+        }
+        return 0;
+    }
+
+    public int Sort() {
+        return 0;
+    }
+
+    public int Print() {
+        int j;
+        j = 0;
+        while (j < size) {
+            System.out.println(number[j]);
+            j = j + 1;
+        }
+        return 0;
+    }
+}
+
+class BubbleSorter extends Sorter {
+    public int Sort() {
+        int i;
+        int aux02;
+        int aux04;
+        int aux05;
+        int aux06;
+        int aux07;
+        int j;
+        int t;
+        i = size - 1;
+        aux02 = 0 - 1;
+        while (aux02 < i) {
+            j = 1;
+            while (j < (i + 1)) {
+                aux07 = j - 1;
+                aux04 = number[aux07];
+                aux05 = number[j];
+                if (aux05 < aux04) {
+                    aux06 = j - 1;
+                    t = number[aux06];
+                    number[aux06] = number[j];
+                    number[j] = t;
+                }
+                else
+                    aux06 = 0;
+                j = j + 1;
+            }
+            i = i - 1;
+        }
+        return 0;
+    }
+}
+
+class Searcher {
+    int[] number;
+    int size;
+
+    public int Init(int sz) {
+        int j;
+        int k;
+        int aux01;
+        int aux02;
+        size = sz;
+        number = new int[sz];
+        j = 1;
+        k = size + 1;
+        while (j < size) {
+            aux01 = 2 * j;
+            aux02 = k - 3;
+            number[j] = aux01 + aux02;
+            j = j + 1;
+            k = k - 1;
+        }
+        return 0;
+    }
+
+    public int Search(int num) {
+        boolean bs01;
+        int right;
+        int left;
+        boolean var_cont;
+        int medium;
+        int aux01;
+        int nt;
+        aux01 = 0;
+        bs01 = false;
+        right = number.length;
+        right = right - 1;
+        left = 0;
+        var_cont = true;
+        while (var_cont) {
+            medium = left + right;
+            medium = this.Div(medium);
+            aux01 = number[medium];
+            if (num < aux01)
+                right = medium - 1;
+            else
+                left = medium + 1;
+            if (this.Compare(aux01, num))
+                var_cont = false;
+            else
+                var_cont = true;
+            if (right < left)
+                var_cont = false;
+            else
+                nt = 0;
+        }
+        if (this.Compare(aux01, num))
+            bs01 = true;
+        else
+            bs01 = false;
+        if (bs01)
+            nt = 1;
+        else
+            nt = 0;
+        return nt;
+    }
+
+    public int Div(int num) {
+        int count01;
+        int count02;
+        int aux03;
+        count01 = 0;
+        count02 = 0;
+        aux03 = num - 1;
+        while (count02 < aux03) {
+            count01 = count01 + 1;
+            count02 = count02 + 2;
+        }
+        return count01;
+    }
+
+    public boolean Compare(int num1, int num2) {
+        boolean retval;
+        int aux02;
+        retval = false;
+        aux02 = num2 + 1;
+        if (num1 < num2)
+            retval = false;
+        else if (!(num1 < aux02))
+            retval = false;
+        else
+            retval = true;
+        return retval;
+    }
+}
+
+class Element {
+    int value;
+    Element next;
+    boolean last;
+
+    public boolean Init(int v, Element n, boolean l) {
+        value = v;
+        next = n;
+        last = l;
+        return true;
+    }
+
+    public int GetValue() {
+        return value;
+    }
+
+    public Element GetNext() {
+        return next;
+    }
+
+    public boolean IsLast() {
+        return last;
+    }
+}
+
+class List {
+    Element head;
+
+    public int Build(int n) {
+        int i;
+        boolean ok;
+        Element e;
+        head = new Element();
+        ok = head.Init(0, head, true);
+        i = 1;
+        while (i < n) {
+            e = new Element();
+            ok = e.Init(i, head, false);
+            head = e;
+            i = i + 1;
+        }
+        return i;
+    }
+
+    public int Sum() {
+        int sum;
+        int v;
+        Element current;
+        boolean done;
+        sum = 0;
+        current = head;
+        done = false;
+        while (!done) {
+            v = current.GetValue();
+            sum = sum + v;
+            done = current.IsLast();
+            current = current.GetNext();
+        }
+        return sum;
+    }
+}
+
+class Shape {
+    int side;
+
+    public int Init(int s) {
+        side = s;
+        return s;
+    }
+
+    public int Area() {
+        return 0;
+    }
+}
+
+class Square extends Shape {
+    public int Area() {
+        int s;
+        s = this.Side();
+        return s * s;
+    }
+
+    public int Side() {
+        return 0;
+    }
+}
+
+class Rectangle extends Square {
+    int other;
+
+    public int Area() {
+        int s;
+        boolean b;
+        s = this.Side();
+        b = (0 < s) && (s < 100);
+        other = s + 1;
+        return s * other;
+    }
+}
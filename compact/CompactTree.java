@@ -0,0 +1,338 @@
+package compact;
+
+import syntaxtree.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Syntax tree of the type declarations of a program, stored in one byte array instead of one object per node.
+ * Nodes are written in preorder, each one as a byte for its kind followed by a few variable length integers:
+ * the choice taken for choices, the number of elements for lists, and kind, symbol and position for tokens.
+ * The children of a production are its fields f0 ... fN, so their number is known from its kind.
+ * Token images are interned in a table of symbols, and lines are stored as the difference from the previous token.
+ *
+ * The parser adds every TypeDeclaration as soon as it has parsed it (see CompactGoal in minijava-jtb.jj),
+ * and the visitors get the JTB nodes of one TypeDeclaration at a time through TypeDeclarationList,
+ * so the JTB nodes of the whole program never exist at the same time.
+ */
+public class CompactTree {
+    private static final int TOKEN = 0;
+    private static final int CHOICE = 1;
+    private static final int ABSENT = 2;
+    private static final int PRESENT = 3;
+    private static final int LIST_OPTIONAL = 4;
+    private static final int LIST = 5;
+    private static final int SEQUENCE = 6;
+    private static final int PRODUCTION = 7;
+
+    /*Fields and constructor of every production, found once per class*/
+    private static final ClassValue<Production> productions = new ClassValue<Production>() {
+        protected Production computeValue(Class<?> type) {
+            return new Production(type);
+        }
+    };
+
+    private byte[] data;
+    private int size;
+    private int nodeCount;
+    private int previousLine;
+
+    private final List<String> symbols;
+    private final Map<String, Integer> symbolIds;
+    private final List<Class<?>> productionTypes;
+    private final Map<Class<?>, Integer> productionIds;
+
+    /*Where every type declaration starts in data*/
+    private int[] typeDeclarations;
+    private int typeDeclarationCount;
+
+    public CompactTree() {
+        this.data = new byte[4096];
+        this.size = 0;
+        this.nodeCount = 0;
+        this.symbols = new ArrayList<String>();
+        this.symbolIds = new HashMap<String, Integer>();
+        this.productionTypes = new ArrayList<Class<?>>();
+        this.productionIds = new HashMap<Class<?>, Integer>();
+        this.typeDeclarations = new int[16];
+        this.typeDeclarationCount = 0;
+    }
+
+    public void addTypeDeclaration(TypeDeclaration typeDeclaration) {
+        if (this.typeDeclarationCount == this.typeDeclarations.length) {
+            this.typeDeclarations = Arrays.copyOf(this.typeDeclarations, Math.max(16, this.typeDeclarationCount * 2));
+        }
+        this.typeDeclarations[this.typeDeclarationCount++] = this.size;
+        /*Every declaration can be read on its own, so its first line is stored as is*/
+        this.previousLine = 0;
+        add(typeDeclaration);
+    }
+
+    /*The type declarations as the list of a Goal, each one is inflated when a visitor asks for it*/
+    public NodeListOptional typeDeclarations() {
+        this.data = Arrays.copyOf(this.data, this.size);
+        this.typeDeclarations = Arrays.copyOf(this.typeDeclarations, this.typeDeclarationCount);
+        return new TypeDeclarationList(this);
+    }
+
+    public int getTypeDeclarationCount() {
+        return this.typeDeclarationCount;
+    }
+
+    public int getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /*Bytes used by the nodes, without the symbols*/
+    public int getSize() {
+        return this.size;
+    }
+
+    public TypeDeclaration getTypeDeclaration(int i) {
+        if (i < 0 || i >= this.typeDeclarationCount) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        return (TypeDeclaration) inflate(new Cursor(this.typeDeclarations[i]));
+    }
+
+    private void add(Node node) {
+        this.nodeCount++;
+        if (node instanceof NodeToken) {
+            NodeToken token = (NodeToken) node;
+            writeByte(TOKEN);
+            writeInt(token.kind);
+            writeInt(symbol(token.tokenImage));
+            writeSignedInt(token.beginLine - this.previousLine);
+            writeInt(token.beginColumn);
+            writeSignedInt(token.endLine - token.beginLine);
+            writeSignedInt(token.endColumn - token.beginColumn);
+            this.previousLine = token.beginLine;
+        }
+        else if (node instanceof NodeChoice) {
+            NodeChoice choice = (NodeChoice) node;
+            writeByte(CHOICE);
+            writeSignedInt(choice.which);
+            add(choice.choice);
+        }
+        else if (node instanceof NodeOptional) {
+            NodeOptional optional = (NodeOptional) node;
+            writeByte(optional.present() ? PRESENT : ABSENT);
+            if (optional.present()) {
+                add(optional.node);
+            }
+        }
+        else if (node instanceof NodeListOptional) {
+            NodeListOptional list = (NodeListOptional) node;
+            writeByte(LIST_OPTIONAL);
+            writeInt(list.size());
+            for (int i = 0 ; i < list.size() ; i++) {
+                add(list.elementAt(i));
+            }
+        }
+        else if (node instanceof NodeList) {
+            NodeList list = (NodeList) node;
+            writeByte(LIST);
+            writeInt(list.size());
+            for (int i = 0 ; i < list.size() ; i++) {
+                add(list.elementAt(i));
+            }
+        }
+        else if (node instanceof NodeSequence) {
+            NodeSequence sequence = (NodeSequence) node;
+            writeByte(SEQUENCE);
+            writeInt(sequence.size());
+            for (int i = 0 ; i < sequence.size() ; i++) {
+                add(sequence.elementAt(i));
+            }
+        }
+        else {
+            Production production = productions.get(node.getClass());
+            writeByte(PRODUCTION + productionId(node.getClass()));
+            for (Field field : production.fields) {
+                add(production.get(field, node));
+            }
+        }
+    }
+
+    private int symbol(String image) {
+        Integer symbol = this.symbolIds.get(image);
+        if (symbol == null) {
+            symbol = this.symbols.size();
+            this.symbols.add(image);
+            this.symbolIds.put(image, symbol);
+        }
+        return symbol;
+    }
+
+    private int productionId(Class<?> type) {
+        Integer id = this.productionIds.get(type);
+        if (id == null) {
+            id = this.productionTypes.size();
+            if (PRODUCTION + id > 0xff) {
+                throw new IllegalStateException("Too many kinds of nodes for a compact tree");
+            }
+            this.productionTypes.add(type);
+            this.productionIds.put(type, id);
+        }
+        return id;
+    }
+
+    private void writeByte(int b) {
+        if (this.size == this.data.length) {
+            this.data = Arrays.copyOf(this.data, Math.max(4096, this.size * 2));
+        }
+        this.data[this.size++] = (byte) b;
+    }
+
+    /*Seven bits at a time, the highest bit of a byte tells whether more bytes follow*/
+    private void writeInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    /*Small negative numbers are stored as small positive ones: 0, -1, 1, -2, 2 ...*/
+    private void writeSignedInt(int value) {
+        writeInt((value << 1) ^ (value >> 31));
+    }
+
+    /*Where the next node of a declaration starts, and the line of the last token read*/
+    private static class Cursor {
+        int position;
+        int line;
+
+        Cursor(int position) {
+            this.position = position;
+            this.line = 0;
+        }
+    }
+
+    private int readInt(Cursor cursor) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = this.data[cursor.position++];
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private int readSignedInt(Cursor cursor) {
+        int value = readInt(cursor);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /*Builds the JTB node at the cursor and everything under it*/
+    private Node inflate(Cursor cursor) {
+        int kind = this.data[cursor.position++] & 0xff;
+
+        switch (kind) {
+            case TOKEN: {
+                int tokenKind = readInt(cursor);
+                String image = this.symbols.get(readInt(cursor));
+                int beginLine = cursor.line + readSignedInt(cursor);
+                int beginColumn = readInt(cursor);
+                int endLine = beginLine + readSignedInt(cursor);
+                int endColumn = beginColumn + readSignedInt(cursor);
+                cursor.line = beginLine;
+                return new NodeToken(image, tokenKind, beginLine, beginColumn, endLine, endColumn);
+            }
+            case CHOICE: {
+                int which = readSignedInt(cursor);
+                return new NodeChoice(inflate(cursor), which);
+            }
+            case ABSENT:
+                return new NodeOptional();
+            case PRESENT:
+                return new NodeOptional(inflate(cursor));
+            case LIST_OPTIONAL: {
+                int count = readInt(cursor);
+                NodeListOptional list = new NodeListOptional();
+                for (int i = 0 ; i < count ; i++) {
+                    list.addNode(inflate(cursor));
+                }
+                list.nodes.trimToSize();
+                return list;
+            }
+            case LIST: {
+                int count = readInt(cursor);
+                NodeList list = new NodeList();
+                for (int i = 0 ; i < count ; i++) {
+                    list.addNode(inflate(cursor));
+                }
+                list.nodes.trimToSize();
+                return list;
+            }
+            case SEQUENCE: {
+                int count = readInt(cursor);
+                NodeSequence sequence = new NodeSequence(count);
+                for (int i = 0 ; i < count ; i++) {
+                    sequence.addNode(inflate(cursor));
+                }
+                return sequence;
+            }
+            default: {
+                Production production = productions.get(this.productionTypes.get(kind - PRODUCTION));
+                Object[] children = new Object[production.fields.length];
+                for (int i = 0 ; i < children.length ; i++) {
+                    children[i] = inflate(cursor);
+                }
+                return production.create(children);
+            }
+        }
+    }
+
+    /*A JTB production is a class with fields f0 ... fN and a constructor that takes exactly those*/
+    private static class Production {
+        final Field[] fields;
+        final Constructor<?> constructor;
+
+        Production(Class<?> type) {
+            List<Field> nodeFields = new ArrayList<Field>();
+            for (Field field : type.getFields()) {
+                if (field.getName().matches("f[0-9]+") && Node.class.isAssignableFrom(field.getType())) {
+                    nodeFields.add(field);
+                }
+            }
+            nodeFields.sort(Comparator.comparingInt((Field field) -> Integer.parseInt(field.getName().substring(1))));
+            this.fields = nodeFields.toArray(new Field[0]);
+
+            Class<?>[] parameterTypes = new Class<?>[this.fields.length];
+            for (int i = 0 ; i < this.fields.length ; i++) {
+                parameterTypes[i] = this.fields[i].getType();
+            }
+            try {
+                this.constructor = type.getConstructor(parameterTypes);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException("No constructor for the fields of " + type.getName(), ex);
+            }
+        }
+
+        Node get(Field field, Node node) {
+            try {
+                return (Node) field.get(node);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        Node create(Object[] children) {
+            try {
+                return (Node) this.constructor.newInstance(children);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+                throw new IllegalStateException("Cannot create " + this.constructor.getDeclaringClass().getName(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package compact;
+
+import syntaxtree.Node;
+import syntaxtree.NodeListOptional;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+/**
+ * The ( TypeDeclaration() )* of a Goal, backed by a CompactTree.
+ * Every access inflates a new copy of the declaration, which can be collected as soon as the visitor is done with it.
+ */
+class TypeDeclarationList extends NodeListOptional {
+    private static final long serialVersionUID = 1L;
+
+    private final CompactTree tree;
+
+    TypeDeclarationList(CompactTree tree) {
+        this.tree = tree;
+    }
+
+    public void addNode(Node n) {
+        throw new UnsupportedOperationException("The type declarations of a compact tree are read only");
+    }
+
+    public Enumeration<Node> elements() {
+        return new Enumeration<Node>() {
+            private int i = 0;
+
+            public boolean hasMoreElements() {
+                return this.i < size();
+            }
+
+            public Node nextElement() {
+                if (!hasMoreElements()) {
+                    throw new NoSuchElementException();
+                }
+                return elementAt(this.i++);
+            }
+        };
+    }
+
+    public Node elementAt(int i) {
+        return this.tree.getTypeDeclaration(i);
+    }
+
+    public int size() {
+        return this.tree.getTypeDeclarationCount();
+    }
+
+    public boolean present() {
+        return size() != 0;
+    }
+}
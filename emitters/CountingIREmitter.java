@@ -0,0 +1,63 @@
+package emitters;
+
+/**
+ * Forwards everything to another emitter, counting the characters and the instructions that go through it.
+ * Instructions are the indented lines of a function body that are neither comments nor labels.
+ */
+public class CountingIREmitter implements IREmitter {
+    private final IREmitter emitter;
+    private long characters;
+    private int instructions;
+
+    public CountingIREmitter(IREmitter emitter) {
+        this.emitter = emitter;
+        this.characters = 0;
+        this.instructions = 0;
+    }
+
+    public void print(String str) {
+        this.characters += str.length();
+        this.emitter.print(str);
+    }
+
+    public void println(String str) {
+        this.characters += str.length() + 1;
+        if (isInstruction(str)) {
+            this.instructions++;
+        }
+        this.emitter.println(str);
+    }
+
+    public void println() {
+        this.characters++;
+        this.emitter.println();
+    }
+
+    public void close() {
+        this.emitter.close();
+    }
+
+    public long getCharacters() {
+        return this.characters;
+    }
+
+    public int getInstructions() {
+        return this.instructions;
+    }
+
+    private static boolean isInstruction(String str) {
+        int start = 0;
+        while (start < str.length() && str.charAt(start) == '\n') {
+            start++;
+        }
+        int end = str.length();
+        while (end > start && str.charAt(end - 1) == '\n') {
+            end--;
+        }
+
+        if (end - start < 2 || str.charAt(start) != '\t' || str.charAt(start + 1) == ';') {
+            return false;
+        }
+        return str.charAt(end - 1) != ':';
+    }
+}
@@ -0,0 +1,94 @@
+package emitters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes IR to a file through a large buffer, the channel is only touched when the buffer fills up.
+ * Generated IR is plain ASCII, so characters are stored as bytes directly.
+ * Anything outside ASCII (e.g. unicode identifiers) goes through the UTF-8 encoder.
+ */
+public class FileIREmitter implements IREmitter {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer byteBuffer;
+    private int position;
+
+    public FileIREmitter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = new byte[BUFFER_SIZE];
+        this.byteBuffer = ByteBuffer.wrap(this.buffer);
+        this.position = 0;
+    }
+
+    public void print(String str) {
+        int length = str.length();
+        for (int i = 0 ; i < length ; i++) {
+            char c = str.charAt(i);
+            if (c >= 0x80) {
+                /*Rare case, encode the rest of the string properly*/
+                write(str.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (this.position == BUFFER_SIZE) {
+                flush();
+            }
+            this.buffer[this.position++] = (byte) c;
+        }
+    }
+
+    public void println(String str) {
+        print(str);
+        println();
+    }
+
+    public void println() {
+        if (this.position == BUFFER_SIZE) {
+            flush();
+        }
+        this.buffer[this.position++] = '\n';
+    }
+
+    public void close() {
+        try {
+            flush();
+            this.channel.close();
+        } catch (UncheckedIOException ex) {
+            try {
+                this.channel.close();
+            } catch (IOException ignored) {}
+            throw ex;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void write(byte[] bytes) {
+        for (int i = 0 ; i < bytes.length ; i++) {
+            if (this.position == BUFFER_SIZE) {
+                flush();
+            }
+            this.buffer[this.position++] = bytes[i];
+        }
+    }
+
+    private void flush() {
+        this.byteBuffer.clear();
+        this.byteBuffer.limit(this.position);
+        try {
+            while (this.byteBuffer.hasRemaining()) {
+                this.channel.write(this.byteBuffer);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.position = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package emitters;
+
+/**
+ * Sink for the textual LLVM IR produced by the code generator.
+ * Implementations are not thread safe, every compilation should use its own emitter.
+ */
+public interface IREmitter {
+    void print(String str);
+
+    void println(String str);
+
+    void println();
+
+    /*Flushes whatever is still buffered and releases the underlying resources*/
+    void close();
+}
@@ -0,0 +1,34 @@
+package emitters;
+
+/**
+ * Keeps the emitted IR in memory, useful when the output should not go straight to a file.
+ */
+public class MemoryIREmitter implements IREmitter {
+    private final StringBuilder buffer;
+
+    public MemoryIREmitter() {
+        this.buffer = new StringBuilder(1 << 16);
+    }
+
+    public void print(String str) {
+        this.buffer.append(str);
+    }
+
+    public void println(String str) {
+        this.buffer.append(str).append('\n');
+    }
+
+    public void println() {
+        this.buffer.append('\n');
+    }
+
+    public void close() {}
+
+    public int length() {
+        return this.buffer.length();
+    }
+
+    public String toString() {
+        return this.buffer.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A label and the instructions that follow it, up to the next label.
+ * The first block of a function is its entry and has no label, unless a phi names it as the block that one of its values comes from.
+ */
+public class BasicBlock {
+    private String name;
+    private final List<Instruction> instructions;
+    /*Comments and blank lines written before the label*/
+    private String text;
+
+    public BasicBlock(String name) {
+        this.name = name;
+        this.instructions = new ArrayList<Instruction>();
+        this.text = "";
+    }
+
+    /*null for the entry block, unless something refers to it*/
+    public String getName() {
+        return this.name;
+    }
+
+    /*Only the entry block is ever renamed, a phi can only name the block that a value comes from if it has a label*/
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Instruction> getInstructions() {
+        return this.instructions;
+    }
+
+    /*null if the block does not end with a branch or a ret yet*/
+    public Instruction getTerminator() {
+        if (this.instructions.isEmpty()) {
+            return null;
+        }
+        Instruction last = this.instructions.get(this.instructions.size() - 1);
+        return last.getOpcode().isTerminator() ? last : null;
+    }
+
+    /*The blocks that the terminator branches to, none if there is no terminator*/
+    public List<BasicBlock> getSuccessors() {
+        Instruction terminator = getTerminator();
+        List<BasicBlock> successors = new ArrayList<BasicBlock>(2);
+        if (terminator != null) {
+            for (int i = 0 ; i < terminator.getBlockCount() ; i++) {
+                successors.add(terminator.getBlock(i));
+            }
+        }
+        return successors;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String toString() {
+        return this.name == null ? "entry" : this.name;
+    }
+}
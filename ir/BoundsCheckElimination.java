@@ -0,0 +1,237 @@
+package ir;
+
+import java.util.*;
+
+/**
+ * Removes the bounds checks of array accesses that can never fail.
+ * A check is an icmp ult of the index and the length of the array that branches to an oob_ok block, or to an oob_err
+ * block that calls throw_oob, which never returns. So everything that the oob_ok block dominates knows that the index is
+ * in bounds, and a check there of the same array with the same index (or with a smaller constant index) is not needed.
+ * The body of a loop such as while (i < a.length) knows that i is below the length, and if i is also never negative
+ * (it starts at a constant or a length that is not, and only grows by 1 while it is below some bound, so it can not
+ * overflow), the checks of a[i] in the body are not needed either.
+ * A check that is removed branches straight to its oob_ok block and its oob_err block goes away, the icmp and the load
+ * of the length are left to DeadCodeElimination and the blocks to SimplifyCFG.
+ * This relies on RedundantLoadElimination to make every use of the same array the same register.
+ */
+public class BoundsCheckElimination {
+
+    private static class Check {
+        final BasicBlock block;
+        final Value index;
+        final Value array;
+
+        Check(BasicBlock block, Value index, Value array) {
+            this.block = block;
+            this.index = index;
+            this.array = array;
+        }
+    }
+
+    /*What is known to be true in the blocks that a block dominates, right after the branch that leads to it*/
+    private static class Fact {
+        /*The array of a check that passed, or null for a comparison index < bound that was true*/
+        final Value array;
+        final Value index;
+        final Value bound;
+
+        Fact(Value array, Value index, Value bound) {
+            this.array = array;
+            this.index = index;
+            this.bound = bound;
+        }
+    }
+
+    private final Function function;
+    private final DominatorTree tree;
+    private final Map<Register, Instruction> definitions;
+    private final Map<Instruction, BasicBlock> blocks;
+    /*The checks by the block that they branch from, and the checks by their oob_ok block*/
+    private final Map<BasicBlock, Check> checks;
+    private final Map<BasicBlock, Check> passed;
+    /*The comparisons index < bound that are true at the start of a block, by block*/
+    private final Map<BasicBlock, Fact> guards;
+    private final Set<Check> redundant;
+
+    private BoundsCheckElimination(Function function) {
+        this.function = function;
+        this.tree = new DominatorTree(function);
+        this.definitions = RedundantLoadElimination.definitions(function);
+        this.blocks = new HashMap<Instruction, BasicBlock>();
+        for (BasicBlock block : function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                this.blocks.put(instruction, block);
+            }
+        }
+        this.checks = new HashMap<BasicBlock, Check>();
+        this.passed = new HashMap<BasicBlock, Check>();
+        this.guards = new HashMap<BasicBlock, Fact>();
+        this.redundant = new LinkedHashSet<Check>();
+    }
+
+    public static void run(Function function) {
+        BoundsCheckElimination elimination = new BoundsCheckElimination(function);
+        elimination.findChecks();
+        if (!elimination.checks.isEmpty()) {
+            elimination.findRedundant();
+            elimination.remove();
+        }
+    }
+
+    private void findChecks() {
+        for (BasicBlock block : this.tree.getBlocks()) {
+            Instruction branch = block.getTerminator();
+            if (branch == null || branch.getOpcode() != Opcode.BR || branch.getOperandCount() != 1 || branch.getBlock(0) == branch.getBlock(1)) {
+                continue;
+            }
+            Instruction condition = this.definitions.get(branch.getOperand(0));
+            if (condition == null || condition.getOpcode() != Opcode.ICMP) {
+                continue;
+            }
+            BasicBlock ifTrue = branch.getBlock(0);
+
+            if (condition.getPredicate().equals("ult") && isThrow(branch.getBlock(1), ifTrue)) {
+                Instruction length = this.definitions.get(condition.getOperand(1));
+                Value array = length == null ? null : RedundantLoadElimination.lengthOf(length, this.definitions);
+                if (array != null) {
+                    Check check = new Check(block, condition.getOperand(0), array);
+                    this.checks.put(block, check);
+                    this.passed.put(ifTrue, check);
+                }
+            }
+            else if (condition.getPredicate().equals("slt") && this.tree.getPredecessors(ifTrue).size() == 1) {
+                this.guards.put(ifTrue, new Fact(null, condition.getOperand(0), condition.getOperand(1)));
+            }
+        }
+    }
+
+    /*An oob_err block: it calls throw_oob and would then go on to the oob_ok block, which it never does*/
+    private boolean isThrow(BasicBlock block, BasicBlock next) {
+        List<Instruction> instructions = block.getInstructions();
+        if (instructions.size() != 2 || this.tree.getPredecessors(block).size() != 1) {
+            return false;
+        }
+        Instruction call = instructions.get(0);
+        Instruction branch = instructions.get(1);
+        return call.getOpcode() == Opcode.CALL && call.getOperand(0) instanceof Global && ((Global) call.getOperand(0)).getName().equals("throw_oob")
+                && branch.getOpcode() == Opcode.BR && branch.getOperandCount() == 0 && branch.getBlock(0) == next;
+    }
+
+    /*Walks the dominator tree keeping the facts of the blocks on the way down*/
+    private void findRedundant() {
+        List<Fact> facts = new ArrayList<Fact>();
+        Deque<Integer> marks = new ArrayDeque<Integer>();
+        this.tree.walk(block -> {
+            marks.push(facts.size());
+            Check check = this.passed.get(block);
+            if (check != null) {
+                facts.add(new Fact(check.array, check.index, null));
+            }
+            Fact guard = this.guards.get(block);
+            if (guard != null) {
+                facts.add(guard);
+            }
+            check = this.checks.get(block);
+            if (check != null && isInBounds(check, facts)) {
+                this.redundant.add(check);
+            }
+        }, block -> {
+            int mark = marks.pop();
+            facts.subList(mark, facts.size()).clear();
+        });
+    }
+
+    private boolean isInBounds(Check check, List<Fact> facts) {
+        for (Fact fact : facts) {
+            if (fact.array != null) {
+                if (fact.array == check.array && (fact.index.equals(check.index) || isBelow(check.index, fact.index))) {
+                    return true;
+                }
+            }
+            else if (fact.index.equals(check.index) && isLengthOf(fact.bound, check.array) && isNonNegative(check.index, new HashSet<Register>())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*A constant index that is not above another index that is in bounds, or 0 when anything is in bounds*/
+    private static boolean isBelow(Value index, Value inBounds) {
+        if (!(index instanceof Constant) || ((Constant) index).getValue() < 0) {
+            return false;
+        }
+        int value = ((Constant) index).getValue();
+        return value == 0 || (inBounds instanceof Constant && value <= ((Constant) inBounds).getValue());
+    }
+
+    private boolean isLengthOf(Value bound, Value array) {
+        Instruction length = this.definitions.get(bound);
+        return length != null && RedundantLoadElimination.lengthOf(length, this.definitions) == array;
+    }
+
+    /*Phis that are being proven are assumed to be non negative, which is what makes an induction variable work*/
+    private boolean isNonNegative(Value value, Set<Register> assumed) {
+        if (value instanceof Constant) {
+            return ((Constant) value).getValue() >= 0;
+        }
+        Instruction definition = this.definitions.get(value);
+        if (definition == null) {
+            return false;
+        }
+        if (RedundantLoadElimination.lengthOf(definition, this.definitions) != null) {
+            return true;
+        }
+        if (definition.getOpcode() != Opcode.PHI) {
+            return false;
+        }
+        Register phi = definition.getResult();
+        if (!assumed.add(phi)) {
+            return true;
+        }
+        for (int i = 0 ; i < definition.getOperandCount() ; i++) {
+            Value incoming = definition.getOperand(i);
+            if (!isGuardedIncrement(incoming, phi) && !isNonNegative(incoming, assumed)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*phi + 1 where phi < something, which can not overflow*/
+    private boolean isGuardedIncrement(Value value, Register phi) {
+        Instruction definition = this.definitions.get(value);
+        if (definition == null || definition.getOpcode() != Opcode.ADD) {
+            return false;
+        }
+        Value left = definition.getOperand(0);
+        Value right = definition.getOperand(1);
+        boolean increment = (left == phi && isOne(right)) || (right == phi && isOne(left));
+        if (!increment) {
+            return false;
+        }
+        BasicBlock block = this.blocks.get(definition);
+        for (Map.Entry<BasicBlock, Fact> guard : this.guards.entrySet()) {
+            if (guard.getValue().index == phi && this.tree.dominates(guard.getKey(), block)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOne(Value value) {
+        return value instanceof Constant && ((Constant) value).getValue() == 1;
+    }
+
+    private void remove() {
+        Set<BasicBlock> throwing = new HashSet<BasicBlock>();
+        for (Check check : this.redundant) {
+            List<Instruction> instructions = check.block.getInstructions();
+            Instruction branch = instructions.get(instructions.size() - 1);
+            throwing.add(branch.getBlock(1));
+            Instruction replacement = new Instruction(Opcode.BR, null, null, null, new Value[0], new BasicBlock[]{branch.getBlock(0)});
+            replacement.setText(branch.getText());
+            instructions.set(instructions.size() - 1, replacement);
+        }
+        this.function.getBlocks().removeIf(throwing::contains);
+    }
+}
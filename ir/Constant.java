@@ -0,0 +1,33 @@
+package ir;
+
+/**
+ * An integer constant of type i1, i8 or i32.
+ */
+public class Constant extends Value {
+    private final int value;
+
+    public Constant(String type, int value) {
+        super(type);
+        this.value = value;
+    }
+
+    public int getValue() {
+        return this.value;
+    }
+
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Constant)) {
+            return false;
+        }
+        Constant rhs = (Constant) obj;
+        return this.value == rhs.value && getType().equals(rhs.getType());
+    }
+
+    public int hashCode() {
+        return 31 * getType().hashCode() + this.value;
+    }
+
+    public String toString() {
+        return Integer.toString(this.value);
+    }
+}
@@ -0,0 +1,66 @@
+package ir;
+
+import java.util.*;
+
+/**
+ * Removes the instructions whose result nothing uses and that do nothing else, such as the length that a removed
+ * bounds check loaded or an icmp whose branch became a plain one. Calls and stores always stay.
+ * Removing an instruction can leave the ones that it used unused as well, so they are looked at again.
+ */
+public class DeadCodeElimination {
+
+    public static void run(Function function) {
+        Map<Register, Integer> uses = new HashMap<Register, Integer>();
+        Map<Register, Instruction> definitions = new HashMap<Register, Instruction>();
+        for (BasicBlock block : function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                if (instruction.getResult() != null) {
+                    definitions.put(instruction.getResult(), instruction);
+                }
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    if (instruction.getOperand(i) instanceof Register) {
+                        uses.merge((Register) instruction.getOperand(i), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        Set<Instruction> dead = new HashSet<Instruction>();
+        Deque<Instruction> worklist = new ArrayDeque<Instruction>(definitions.values());
+        while (!worklist.isEmpty()) {
+            Instruction instruction = worklist.pop();
+            if (dead.contains(instruction) || !isRemovable(instruction) || uses.getOrDefault(instruction.getResult(), 0) > 0) {
+                continue;
+            }
+            dead.add(instruction);
+            for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                Value operand = instruction.getOperand(i);
+                if (operand instanceof Register && definitions.containsKey(operand)) {
+                    uses.merge((Register) operand, -1, Integer::sum);
+                    worklist.push(definitions.get(operand));
+                }
+            }
+        }
+        if (dead.isEmpty()) {
+            return;
+        }
+
+        for (BasicBlock block : function.getBlocks()) {
+            /*Comments and blank lines go with the instruction they were in front of*/
+            List<Instruction> kept = new ArrayList<Instruction>(block.getInstructions().size());
+            for (Instruction instruction : block.getInstructions()) {
+                if (!dead.contains(instruction)) {
+                    kept.add(instruction);
+                }
+            }
+            block.getInstructions().clear();
+            block.getInstructions().addAll(kept);
+        }
+    }
+
+    private static boolean isRemovable(Instruction instruction) {
+        Opcode opcode = instruction.getOpcode();
+        return opcode.isBinary() || opcode.isCast() || opcode == Opcode.ICMP || opcode == Opcode.PHI
+                || opcode == Opcode.GETELEMENTPTR || opcode == Opcode.LOAD || opcode == Opcode.ALLOCA;
+    }
+}
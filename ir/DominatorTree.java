@@ -0,0 +1,191 @@
+package ir;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The dominator tree of a function, along with the predecessors of its blocks and their dominance frontiers.
+ * Only the blocks that can be reached from the entry are part of the tree.
+ * Immediate dominators are found as in "A Simple, Fast Dominance Algorithm" (Cooper, Harvey and Kennedy),
+ * iterating over the blocks in reverse postorder until nothing changes.
+ */
+public class DominatorTree {
+    /*A block on the stack of a walk without recursion, with the blocks below it and the next one of them to visit*/
+    private static class Frame {
+        final BasicBlock block;
+        final List<BasicBlock> successors;
+        int next;
+
+        Frame(BasicBlock block, List<BasicBlock> successors) {
+            this.block = block;
+            this.successors = successors;
+            this.next = 0;
+        }
+    }
+
+    /*Reachable blocks in reverse postorder, the entry is the first one*/
+    private final List<BasicBlock> blocks;
+    private final Map<BasicBlock, Integer> numbers;
+    private final List<List<BasicBlock>> predecessors;
+    private final int[] idoms;
+    private final List<List<BasicBlock>> children;
+
+    public DominatorTree(Function function) {
+        this.blocks = reversePostorder(function.getEntry());
+        this.numbers = new HashMap<BasicBlock, Integer>(this.blocks.size() * 2);
+        for (int i = 0 ; i < this.blocks.size() ; i++) {
+            this.numbers.put(this.blocks.get(i), i);
+        }
+
+        this.predecessors = new ArrayList<List<BasicBlock>>(this.blocks.size());
+        for (int i = 0 ; i < this.blocks.size() ; i++) {
+            this.predecessors.add(new ArrayList<BasicBlock>(2));
+        }
+        for (BasicBlock block : this.blocks) {
+            for (BasicBlock successor : block.getSuccessors()) {
+                List<BasicBlock> list = this.predecessors.get(this.numbers.get(successor));
+                if (!list.contains(block)) {
+                    list.add(block);
+                }
+            }
+        }
+
+        this.idoms = new int[this.blocks.size()];
+        Arrays.fill(this.idoms, -1);
+        this.idoms[0] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1 ; i < this.blocks.size() ; i++) {
+                int idom = -1;
+                for (BasicBlock predecessor : this.predecessors.get(i)) {
+                    int p = this.numbers.get(predecessor);
+                    if (this.idoms[p] != -1) {
+                        idom = idom == -1 ? p : intersect(p, idom);
+                    }
+                }
+                if (this.idoms[i] != idom) {
+                    this.idoms[i] = idom;
+                    changed = true;
+                }
+            }
+        }
+
+        this.children = new ArrayList<List<BasicBlock>>(this.blocks.size());
+        for (int i = 0 ; i < this.blocks.size() ; i++) {
+            this.children.add(new ArrayList<BasicBlock>(2));
+        }
+        for (int i = 1 ; i < this.blocks.size() ; i++) {
+            this.children.get(this.idoms[i]).add(this.blocks.get(i));
+        }
+    }
+
+    private static List<BasicBlock> reversePostorder(BasicBlock entry) {
+        List<BasicBlock> postorder = new ArrayList<BasicBlock>();
+        Set<BasicBlock> visited = new HashSet<BasicBlock>();
+        /*Without recursion, as functions can be long*/
+        Deque<Frame> stack = new ArrayDeque<Frame>();
+        visited.add(entry);
+        stack.push(new Frame(entry, entry.getSuccessors()));
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.next < frame.successors.size()) {
+                BasicBlock successor = frame.successors.get(frame.next++);
+                if (visited.add(successor)) {
+                    stack.push(new Frame(successor, successor.getSuccessors()));
+                }
+            }
+            else {
+                postorder.add(stack.pop().block);
+            }
+        }
+        Collections.reverse(postorder);
+        return postorder;
+    }
+
+    private int intersect(int a, int b) {
+        while (a != b) {
+            while (a > b) {
+                a = this.idoms[a];
+            }
+            while (b > a) {
+                b = this.idoms[b];
+            }
+        }
+        return a;
+    }
+
+    /*The reachable blocks, every block comes after its dominators*/
+    public List<BasicBlock> getBlocks() {
+        return this.blocks;
+    }
+
+    public boolean isReachable(BasicBlock block) {
+        return this.numbers.containsKey(block);
+    }
+
+    public List<BasicBlock> getPredecessors(BasicBlock block) {
+        return this.predecessors.get(this.numbers.get(block));
+    }
+
+    /*null for the entry*/
+    public BasicBlock getIdom(BasicBlock block) {
+        int number = this.numbers.get(block);
+        return number == 0 ? null : this.blocks.get(this.idoms[number]);
+    }
+
+    public List<BasicBlock> getChildren(BasicBlock block) {
+        return this.children.get(this.numbers.get(block));
+    }
+
+    /*Calls enter on every block before the blocks that it dominates and exit after them, without recursion as the tree can be deep*/
+    public void walk(Consumer<BasicBlock> enter, Consumer<BasicBlock> exit) {
+        Deque<Frame> stack = new ArrayDeque<Frame>();
+        enter.accept(this.blocks.get(0));
+        stack.push(new Frame(this.blocks.get(0), getChildren(this.blocks.get(0))));
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.next < frame.successors.size()) {
+                BasicBlock child = frame.successors.get(frame.next++);
+                enter.accept(child);
+                stack.push(new Frame(child, getChildren(child)));
+            }
+            else {
+                stack.pop();
+                exit.accept(frame.block);
+            }
+        }
+    }
+
+    /*Every block dominates itself*/
+    public boolean dominates(BasicBlock dominator, BasicBlock block) {
+        int d = this.numbers.get(dominator);
+        int b = this.numbers.get(block);
+        while (b > d) {
+            b = this.idoms[b];
+        }
+        return b == d;
+    }
+
+    /*The blocks where the dominance of each block ends, see Cooper, Harvey and Kennedy*/
+    public Map<BasicBlock, Set<BasicBlock>> getFrontiers() {
+        Map<BasicBlock, Set<BasicBlock>> frontiers = new HashMap<BasicBlock, Set<BasicBlock>>(this.blocks.size() * 2);
+        for (BasicBlock block : this.blocks) {
+            frontiers.put(block, new LinkedHashSet<BasicBlock>());
+        }
+        for (int i = 0 ; i < this.blocks.size() ; i++) {
+            List<BasicBlock> predecessors = this.predecessors.get(i);
+            if (predecessors.size() < 2) {
+                continue;
+            }
+            for (BasicBlock predecessor : predecessors) {
+                int runner = this.numbers.get(predecessor);
+                while (runner != this.idoms[i]) {
+                    frontiers.get(this.blocks.get(runner)).add(this.blocks.get(i));
+                    runner = this.idoms[runner];
+                }
+            }
+        }
+        return frontiers;
+    }
+}
@@ -0,0 +1,75 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A function of the module: its signature and its basic blocks, the entry block first.
+ * Methods take the object they are called on as their first parameter, %this.
+ * A function whose generation was stopped by an error is not complete, it is printed as far as it got and is not closed,
+ * if that was before all of its parameters were known it has no body yet and is printed up to its last parameter.
+ */
+public class Function {
+    private final String name;
+    private final String returnType;
+    private final List<Register> parameters;
+    private final List<BasicBlock> blocks;
+    /*Comments and blank lines written after the last instruction*/
+    private String text;
+    private boolean hasBody;
+    private boolean complete;
+
+    public Function(String name, String returnType) {
+        this.name = name;
+        this.returnType = returnType;
+        this.parameters = new ArrayList<Register>();
+        this.blocks = new ArrayList<BasicBlock>();
+        this.text = "";
+        this.hasBody = false;
+        this.complete = false;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getReturnType() {
+        return this.returnType;
+    }
+
+    public List<Register> getParameters() {
+        return this.parameters;
+    }
+
+    public List<BasicBlock> getBlocks() {
+        return this.blocks;
+    }
+
+    public BasicBlock getEntry() {
+        return this.blocks.get(0);
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public boolean hasBody() {
+        return this.hasBody;
+    }
+
+    public void setHasBody(boolean hasBody) {
+        this.hasBody = hasBody;
+    }
+
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+}
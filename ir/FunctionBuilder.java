@@ -0,0 +1,190 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends instructions to a function in the order they are generated.
+ * Temporaries are numbered by the code generator and named _N here, other registers are looked up by name.
+ * Labels may be branched to before they are placed, the block is created by whichever comes first.
+ * Comments and blank lines are kept with the element that follows them, see text, until then they end the function.
+ * The function is always as far as it was built, so it can be added to a module before it is done.
+ */
+public class FunctionBuilder {
+    private final Function function;
+    private final Map<String, BasicBlock> blocks;
+    private final Map<String, Register> registers;
+    private final List<Register> temporaries;
+    private BasicBlock block;
+
+    public FunctionBuilder(String name, String returnType) {
+        this.function = new Function(name, returnType);
+        this.blocks = new HashMap<String, BasicBlock>();
+        this.registers = new HashMap<String, Register>();
+        this.temporaries = new ArrayList<Register>();
+        this.block = new BasicBlock(null);
+        this.function.getBlocks().add(this.block);
+    }
+
+    public Function getFunction() {
+        return this.function;
+    }
+
+    /*Every parameter is known, what follows goes into the body*/
+    public void beginBody() {
+        this.function.setHasBody(true);
+    }
+
+    /*Closes the function, it is only printed with its closing brace from now on*/
+    public void finish() {
+        this.function.setComplete(true);
+    }
+
+    public Register parameter(String name, String type) {
+        Register register = new Register(name, type);
+        this.registers.put(name, register);
+        this.function.getParameters().add(register);
+        return register;
+    }
+
+    /*Lines written before the next label or instruction, each one ends with a newline*/
+    public void text(String lines) {
+        this.function.setText(this.function.getText() + lines + "\n");
+    }
+
+    public void blankLine() {
+        this.function.setText(this.function.getText() + "\n");
+    }
+
+    public void label(String name) {
+        this.block = block(name);
+        this.block.setText(takeText());
+        this.function.getBlocks().add(this.block);
+    }
+
+    /*The temporary with this number, a temporary that is used before it is defined has no type*/
+    public Register register(int number) {
+        Register register = number < this.temporaries.size() ? this.temporaries.get(number) : null;
+        return register == null ? define(number, null) : register;
+    }
+
+    /*A register that is not a temporary, such as a parameter or a stack slot*/
+    public Register register(String name, String type) {
+        Register register = this.registers.get(name);
+        if (register == null) {
+            register = new Register(name, type);
+            this.registers.put(name, register);
+        }
+        return register;
+    }
+
+    public static Constant constant(String type, int value) {
+        return new Constant(type, value);
+    }
+
+    public Register alloca(String name, String type) {
+        Register result = new Register(name, type + "*");
+        this.registers.put(name, result);
+        append(new Instruction(Opcode.ALLOCA, result, type, null, new Value[0], new BasicBlock[0]));
+        return result;
+    }
+
+    public void store(String type, Value value, Value pointer) {
+        append(new Instruction(Opcode.STORE, null, type, null, new Value[]{value, pointer}, new BasicBlock[0]));
+    }
+
+    public Register load(int result, String type, Value pointer) {
+        return append(new Instruction(Opcode.LOAD, define(result, type), type, null, new Value[]{pointer}, new BasicBlock[0]));
+    }
+
+    /*With one index the result points to the element type, with two the element type is an array and it points to an element of it*/
+    public Register getelementptr(int result, String type, Value pointer, Value... indices) {
+        String resultType = indices.length == 1 ? type + "*" : type.substring(type.indexOf(" x ") + 3, type.length() - 1) + "*";
+
+        Value[] operands = new Value[indices.length + 1];
+        operands[0] = pointer;
+        System.arraycopy(indices, 0, operands, 1, indices.length);
+        return append(new Instruction(Opcode.GETELEMENTPTR, define(result, resultType), type, null, operands, new BasicBlock[0]));
+    }
+
+    public Register cast(int result, Opcode opcode, Value value, String type) {
+        return append(new Instruction(opcode, define(result, type), null, null, new Value[]{value}, new BasicBlock[0]));
+    }
+
+    public Register binary(int result, Opcode opcode, String type, Value left, Value right) {
+        return append(new Instruction(opcode, define(result, type), type, null, new Value[]{left, right}, new BasicBlock[0]));
+    }
+
+    public Register icmp(int result, String predicate, String type, Value left, Value right) {
+        return append(new Instruction(Opcode.ICMP, define(result, "i1"), type, predicate, new Value[]{left, right}, new BasicBlock[0]));
+    }
+
+    /*The value at index i comes from the block labelled labels[i]*/
+    public Register phi(int result, String type, Value[] values, String[] labels) {
+        BasicBlock[] predecessors = new BasicBlock[labels.length];
+        for (int i = 0 ; i < labels.length ; i++) {
+            predecessors[i] = block(labels[i]);
+        }
+        return append(new Instruction(Opcode.PHI, define(result, type), type, null, values.clone(), predecessors));
+    }
+
+    public Register call(int result, String type, Value callee, Value... arguments) {
+        return append(new Instruction(Opcode.CALL, define(result, type), type, null, callOperands(callee, arguments), new BasicBlock[0]));
+    }
+
+    /*A call without a result, the type may be the whole type of the callee, e.g. void (i32)*/
+    public void call(String type, Value callee, Value... arguments) {
+        append(new Instruction(Opcode.CALL, null, type, null, callOperands(callee, arguments), new BasicBlock[0]));
+    }
+
+    public void br(String label) {
+        append(new Instruction(Opcode.BR, null, null, null, new Value[0], new BasicBlock[]{block(label)}));
+    }
+
+    public void br(Value condition, String ifTrue, String ifFalse) {
+        append(new Instruction(Opcode.BR, null, null, null, new Value[]{condition}, new BasicBlock[]{block(ifTrue), block(ifFalse)}));
+    }
+
+    public void ret(String type, Value value) {
+        append(new Instruction(Opcode.RET, null, type, null, new Value[]{value}, new BasicBlock[0]));
+    }
+
+    private static Value[] callOperands(Value callee, Value[] arguments) {
+        Value[] operands = new Value[arguments.length + 1];
+        operands[0] = callee;
+        System.arraycopy(arguments, 0, operands, 1, arguments.length);
+        return operands;
+    }
+
+    private BasicBlock block(String label) {
+        BasicBlock block = this.blocks.get(label);
+        if (block == null) {
+            block = new BasicBlock(label);
+            this.blocks.put(label, block);
+        }
+        return block;
+    }
+
+    private Register define(int number, String type) {
+        while (this.temporaries.size() <= number) {
+            this.temporaries.add(null);
+        }
+        Register register = new Register("_" + number, type);
+        this.temporaries.set(number, register);
+        return register;
+    }
+
+    private Register append(Instruction instruction) {
+        instruction.setText(takeText());
+        this.block.getInstructions().add(instruction);
+        return instruction.getResult();
+    }
+
+    private String takeText() {
+        String text = this.function.getText();
+        this.function.setText("");
+        return text;
+    }
+}
@@ -0,0 +1,22 @@
+package ir;
+
+/**
+ * A function or a global variable of the module, written as @name.
+ * The type of a global is that of a pointer to it, as in LLVM.
+ */
+public class Global extends Value {
+    private final String name;
+
+    public Global(String name, String type) {
+        super(type);
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String toString() {
+        return "@" + this.name;
+    }
+}
@@ -0,0 +1,170 @@
+package ir;
+
+import emitters.IREmitter;
+
+/**
+ * Writes a module as textual LLVM IR: the vtables, the declarations of the runtime and then the functions.
+ */
+public class IRPrinter {
+    private static final String RUNTIME = "\ndeclare i8* @calloc(i32, i32)\n" +
+            "declare i32 @printf(i8*, ...)\n" +
+            "declare void @exit(i32)\n" +
+            "\n" +
+            "@_cint = constant [4 x i8] c\"%d\\0a\\00\"\n" +
+            "@_cOOB = constant [15 x i8] c\"Out of bounds\\0a\\00\"\n" +
+            "define void @print_int(i32 %i) {\n" +
+            "    %_str = bitcast [4 x i8]* @_cint to i8*\n" +
+            "    call i32 (i8*, ...) @printf(i8* %_str, i32 %i)\n" +
+            "    ret void\n" +
+            "}\n" +
+            "\n" +
+            "define void @throw_oob() {\n" +
+            "    %_str = bitcast [15 x i8]* @_cOOB to i8*\n" +
+            "    call i32 (i8*, ...) @printf(i8* %_str)\n" +
+            "    call void @exit(i32 1)\n" +
+            "    ret void\n" +
+            "}\n";
+
+    private final IREmitter emitter;
+
+    public IRPrinter(IREmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    public void print(Module module) {
+        for (VTable vtable : module.getVTables()) {
+            print(vtable);
+        }
+
+        this.emitter.println(RUNTIME);
+
+        for (Function function : module.getFunctions()) {
+            print(function);
+        }
+    }
+
+    public void print(VTable vtable) {
+        int size = vtable.getMethods().size();
+        if (size == 0) {
+            this.emitter.println(vtable.getGlobal() + " = global [0 x i8*] []\n");
+            return;
+        }
+
+        this.emitter.println(vtable.getGlobal() + " = global [" + size + " x i8*] [");
+        for (int slot = 0 ; slot < size ; slot++) {
+            Global method = vtable.getMethods().get(slot);
+            this.emitter.print("\ti8* bitcast (" + method.getType() + " " + method + " to i8*)");
+
+            if (slot + 1 < size) {
+                this.emitter.println(",");
+            }
+            else {
+                this.emitter.println("\n]\n");
+            }
+        }
+    }
+
+    public void print(Function function) {
+        StringBuilder header = new StringBuilder("define " + function.getReturnType() + " @" + function.getName() + "(");
+        for (int i = 0 ; i < function.getParameters().size() ; i++) {
+            if (i > 0) {
+                header.append(", ");
+            }
+            header.append(typed(function.getParameters().get(i)));
+        }
+        if (!function.hasBody()) {
+            this.emitter.print(header.toString());
+            return;
+        }
+        this.emitter.println(header.append(") {").toString());
+
+        for (BasicBlock block : function.getBlocks()) {
+            if (block.getName() != null) {
+                this.emitter.print(block.getText());
+                this.emitter.println("\t" + block.getName() + ":");
+            }
+            for (Instruction instruction : block.getInstructions()) {
+                this.emitter.print(instruction.getText());
+                this.emitter.println("\t" + format(instruction));
+            }
+        }
+
+        this.emitter.print(function.getText());
+        if (function.isComplete()) {
+            this.emitter.println("}\n");
+        }
+    }
+
+    /*A single instruction, without its indentation*/
+    public static String format(Instruction instruction) {
+        StringBuilder line = new StringBuilder();
+        if (instruction.getResult() != null) {
+            line.append(instruction.getResult()).append(" = ");
+        }
+        Opcode opcode = instruction.getOpcode();
+        line.append(opcode);
+
+        switch (opcode) {
+            case ALLOCA:
+                line.append(' ').append(instruction.getType());
+                break;
+            case LOAD:
+                line.append(' ').append(instruction.getType()).append(", ").append(typed(instruction.getOperand(0)));
+                break;
+            case STORE:
+                line.append(' ').append(instruction.getType()).append(' ').append(instruction.getOperand(0))
+                        .append(", ").append(typed(instruction.getOperand(1)));
+                break;
+            case GETELEMENTPTR:
+                line.append(' ').append(instruction.getType());
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    line.append(", ").append(typed(instruction.getOperand(i)));
+                }
+                break;
+            case BITCAST:
+            case ZEXT:
+            case TRUNC:
+                line.append(' ').append(typed(instruction.getOperand(0))).append(" to ").append(instruction.getResult().getType());
+                break;
+            case ICMP:
+                line.append(' ').append(instruction.getPredicate()).append(' ').append(instruction.getType()).append(' ')
+                        .append(instruction.getOperand(0)).append(", ").append(instruction.getOperand(1));
+                break;
+            case PHI:
+                line.append(' ').append(instruction.getType());
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    line.append(i == 0 ? " [" : ", [").append(instruction.getOperand(i)).append(", %").append(instruction.getBlock(i).getName()).append(']');
+                }
+                break;
+            case CALL:
+                line.append(' ').append(instruction.getType()).append(' ').append(instruction.getOperand(0)).append('(');
+                for (int i = 1 ; i < instruction.getOperandCount() ; i++) {
+                    line.append(i == 1 ? "" : ", ").append(typed(instruction.getOperand(i)));
+                }
+                line.append(')');
+                break;
+            case BR:
+                if (instruction.getOperandCount() == 0) {
+                    line.append(" label %").append(instruction.getBlock(0).getName());
+                }
+                else {
+                    line.append(' ').append(typed(instruction.getOperand(0))).append(", label %").append(instruction.getBlock(0).getName())
+                            .append(", label %").append(instruction.getBlock(1).getName());
+                }
+                break;
+            case RET:
+                line.append(' ').append(instruction.getType()).append(' ').append(instruction.getOperand(0));
+                break;
+            default:
+                /*add, sub, mul and xor*/
+                line.append(' ').append(instruction.getType()).append(' ').append(instruction.getOperand(0))
+                        .append(", ").append(instruction.getOperand(1));
+                break;
+        }
+        return line.toString();
+    }
+
+    private static String typed(Value value) {
+        return value.getType() + " " + value;
+    }
+}
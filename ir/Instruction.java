@@ -0,0 +1,83 @@
+package ir;
+
+/**
+ * One instruction of a basic block.
+ * The type is the one that the instruction is written with: the allocated type of an alloca, the loaded or stored type,
+ * the element type of a getelementptr, the type of the operands of a binary operator or an icmp, the type of a phi,
+ * the type of the callee of a call (e.g. i32 or void (i32)) and the returned type of a ret. Casts and branches have none.
+ * Branches keep their successors, and a phi keeps the block that every one of its values comes from, in the same order.
+ */
+public class Instruction {
+    private final Opcode opcode;
+    private final Register result;
+    private final String type;
+    private final String predicate;
+    private final Value[] operands;
+    private final BasicBlock[] blocks;
+    /*Comments and blank lines written before the instruction, so that the output reads as it always did*/
+    private String text;
+
+    Instruction(Opcode opcode, Register result, String type, String predicate, Value[] operands, BasicBlock[] blocks) {
+        this.opcode = opcode;
+        this.result = result;
+        this.type = type;
+        this.predicate = predicate;
+        this.operands = operands;
+        this.blocks = blocks;
+        this.text = "";
+    }
+
+    public Opcode getOpcode() {
+        return this.opcode;
+    }
+
+    /*null if the instruction has no result*/
+    public Register getResult() {
+        return this.result;
+    }
+
+    public String getType() {
+        return this.type;
+    }
+
+    /*The condition of an icmp, such as slt or ult*/
+    public String getPredicate() {
+        return this.predicate;
+    }
+
+    public int getOperandCount() {
+        return this.operands.length;
+    }
+
+    public Value getOperand(int index) {
+        return this.operands[index];
+    }
+
+    public void setOperand(int index, Value value) {
+        this.operands[index] = value;
+    }
+
+    public int getBlockCount() {
+        return this.blocks.length;
+    }
+
+    public BasicBlock getBlock(int index) {
+        return this.blocks[index];
+    }
+
+    public void setBlock(int index, BasicBlock block) {
+        this.blocks[index] = block;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String toString() {
+        return IRPrinter.format(this);
+    }
+}
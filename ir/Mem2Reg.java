@@ -0,0 +1,345 @@
+package ir;
+
+import java.util.*;
+
+/**
+ * Promotes the stack slots of local variables, parameters and "this" to registers, the way LLVM's mem2reg does.
+ * A slot can be promoted when it is allocated in the entry block and is only ever loaded from and stored to,
+ * which is every slot that the generator allocates: a local array pointer is an i32** or i1** slot like any other.
+ * Phis are placed at the iterated dominance frontier of the blocks that store to a slot (Cytron et al.), then the
+ * dominator tree is walked keeping the current value of every slot, every load is replaced by that value and the
+ * stores and the allocas go away. A slot that is read before anything is stored to it reads undef.
+ * The comments and blank lines in front of the instructions that go away go with them, they were about stack slots.
+ * A phi is named after its slot and its block, e.g. %i.loop_again_0, and the phis that end up unused are removed.
+ */
+public class Mem2Reg {
+    private final Function function;
+    private final DominatorTree tree;
+    /*The promotable slots, numbered in the order they are allocated*/
+    private final Map<Register, Integer> slots;
+    private final List<Instruction> allocas;
+    /*Phis placed at the start of every block, by slot, null where a slot needs none*/
+    private final Map<BasicBlock, Instruction[]> phis;
+    /*The value that the result of every removed load stands for*/
+    private final Map<Register, Value> replacements;
+
+    private Mem2Reg(Function function) {
+        this.function = function;
+        removeUnreachable(function);
+        this.tree = new DominatorTree(function);
+        this.slots = new HashMap<Register, Integer>();
+        this.allocas = new ArrayList<Instruction>();
+        this.phis = new HashMap<BasicBlock, Instruction[]>();
+        this.replacements = new HashMap<Register, Value>();
+    }
+
+    public static void run(Function function) {
+        Mem2Reg mem2Reg = new Mem2Reg(function);
+        mem2Reg.foldZeroOffsets();
+        if (mem2Reg.findSlots()) {
+            mem2Reg.placePhis();
+            mem2Reg.rename();
+            mem2Reg.rewrite();
+            mem2Reg.removeDeadPhis();
+        }
+    }
+
+    /*Blocks that nothing branches to, such as the one after a return, would only get in the way of the dominator tree*/
+    private static void removeUnreachable(Function function) {
+        Set<BasicBlock> reachable = new HashSet<BasicBlock>();
+        Deque<BasicBlock> worklist = new ArrayDeque<BasicBlock>();
+        reachable.add(function.getEntry());
+        worklist.push(function.getEntry());
+        while (!worklist.isEmpty()) {
+            for (BasicBlock successor : worklist.pop().getSuccessors()) {
+                if (reachable.add(successor)) {
+                    worklist.push(successor);
+                }
+            }
+        }
+        if (reachable.size() == function.getBlocks().size()) {
+            return;
+        }
+        function.getBlocks().retainAll(reachable);
+        for (BasicBlock block : function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                if (instruction.getOpcode() == Opcode.PHI) {
+                    removeIncoming(block, instruction, reachable);
+                }
+            }
+        }
+    }
+
+    private static void removeIncoming(BasicBlock block, Instruction phi, Set<BasicBlock> reachable) {
+        List<Value> values = new ArrayList<Value>();
+        List<BasicBlock> blocks = new ArrayList<BasicBlock>();
+        for (int i = 0 ; i < phi.getBlockCount() ; i++) {
+            if (reachable.contains(phi.getBlock(i))) {
+                values.add(phi.getOperand(i));
+                blocks.add(phi.getBlock(i));
+            }
+        }
+        if (values.size() == phi.getBlockCount()) {
+            return;
+        }
+        Instruction replacement = new Instruction(Opcode.PHI, phi.getResult(), phi.getType(), null, values.toArray(new Value[0]), blocks.toArray(new BasicBlock[0]));
+        replacement.setText(phi.getText());
+        List<Instruction> instructions = block.getInstructions();
+        instructions.set(instructions.indexOf(phi), replacement);
+    }
+
+    /*The address of a local variable is taken with a getelementptr of offset 0 before storing an array to it, that is the slot itself*/
+    private void foldZeroOffsets() {
+        Set<Register> allocated = new HashSet<Register>();
+        for (Instruction instruction : this.function.getEntry().getInstructions()) {
+            if (instruction.getOpcode() == Opcode.ALLOCA) {
+                allocated.add(instruction.getResult());
+            }
+        }
+        for (BasicBlock block : this.tree.getBlocks()) {
+            List<Instruction> kept = new ArrayList<Instruction>(block.getInstructions().size());
+            for (Instruction instruction : block.getInstructions()) {
+                if (instruction.getOpcode() == Opcode.GETELEMENTPTR && instruction.getOperandCount() == 2
+                        && allocated.contains(instruction.getOperand(0)) && isZero(instruction.getOperand(1))) {
+                    this.replacements.put(instruction.getResult(), instruction.getOperand(0));
+                    continue;
+                }
+                kept.add(instruction);
+            }
+            block.getInstructions().clear();
+            block.getInstructions().addAll(kept);
+        }
+        if (!this.replacements.isEmpty()) {
+            rewrite();
+            this.replacements.clear();
+        }
+    }
+
+    private static boolean isZero(Value value) {
+        return value instanceof Constant && ((Constant) value).getValue() == 0;
+    }
+
+    /*false if there is nothing to promote*/
+    private boolean findSlots() {
+        for (Instruction instruction : this.function.getEntry().getInstructions()) {
+            if (instruction.getOpcode() == Opcode.ALLOCA) {
+                this.slots.put(instruction.getResult(), this.allocas.size());
+                this.allocas.add(instruction);
+            }
+        }
+        /*A slot whose address is used in any other way than as the pointer of a load or a store stays in memory*/
+        Set<Register> escaping = new HashSet<Register>();
+        for (BasicBlock block : this.tree.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    Value operand = instruction.getOperand(i);
+                    if (this.slots.containsKey(operand) && !isPointer(instruction, i)) {
+                        escaping.add((Register) operand);
+                    }
+                }
+            }
+        }
+        if (!escaping.isEmpty()) {
+            List<Instruction> promotable = new ArrayList<Instruction>();
+            for (Instruction alloca : this.allocas) {
+                if (!escaping.contains(alloca.getResult())) {
+                    promotable.add(alloca);
+                }
+            }
+            this.allocas.clear();
+            this.slots.clear();
+            for (Instruction alloca : promotable) {
+                this.slots.put(alloca.getResult(), this.allocas.size());
+                this.allocas.add(alloca);
+            }
+        }
+        return !this.allocas.isEmpty();
+    }
+
+    private static boolean isPointer(Instruction instruction, int operand) {
+        return (instruction.getOpcode() == Opcode.LOAD && operand == 0) || (instruction.getOpcode() == Opcode.STORE && operand == 1);
+    }
+
+    private void placePhis() {
+        Map<BasicBlock, Set<BasicBlock>> frontiers = this.tree.getFrontiers();
+        List<Set<BasicBlock>> definitions = new ArrayList<Set<BasicBlock>>(this.allocas.size());
+        for (int i = 0 ; i < this.allocas.size() ; i++) {
+            definitions.add(new LinkedHashSet<BasicBlock>());
+        }
+        for (BasicBlock block : this.tree.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                if (instruction.getOpcode() == Opcode.STORE && this.slots.containsKey(instruction.getOperand(1))) {
+                    definitions.get(this.slots.get(instruction.getOperand(1))).add(block);
+                }
+            }
+        }
+
+        for (int slot = 0 ; slot < this.allocas.size() ; slot++) {
+            Instruction alloca = this.allocas.get(slot);
+            Deque<BasicBlock> worklist = new ArrayDeque<BasicBlock>(definitions.get(slot));
+            Set<BasicBlock> placed = new HashSet<BasicBlock>();
+            while (!worklist.isEmpty()) {
+                BasicBlock block = worklist.pop();
+                for (BasicBlock frontier : frontiers.get(block)) {
+                    if (!placed.add(frontier)) {
+                        continue;
+                    }
+                    List<BasicBlock> predecessors = this.tree.getPredecessors(frontier);
+                    if (predecessors.contains(this.function.getEntry())) {
+                        this.function.getEntry().setName("entry");
+                    }
+                    Register result = new Register(alloca.getResult().getName() + "." + frontier.getName(), alloca.getType());
+                    Instruction phi = new Instruction(Opcode.PHI, result, alloca.getType(), null, new Value[predecessors.size()], predecessors.toArray(new BasicBlock[0]));
+                    this.phis.computeIfAbsent(frontier, key -> new Instruction[this.allocas.size()])[slot] = phi;
+                    if (!definitions.get(slot).contains(frontier)) {
+                        worklist.push(frontier);
+                    }
+                }
+            }
+        }
+    }
+
+    /*Walks the dominator tree, undoing the values set in a block once the blocks it dominates are done*/
+    private void rename() {
+        Value[] current = new Value[this.allocas.size()];
+        for (int slot = 0 ; slot < current.length ; slot++) {
+            current[slot] = new Undef(this.allocas.get(slot).getType());
+        }
+        /*Pairs of a slot and the value it had before, and where the entries of every block on the way down start*/
+        Deque<Object[]> undo = new ArrayDeque<Object[]>();
+        Deque<Integer> marks = new ArrayDeque<Integer>();
+        this.tree.walk(block -> {
+            marks.push(undo.size());
+            renameBlock(block, current, undo);
+        }, block -> {
+            int mark = marks.pop();
+            while (undo.size() > mark) {
+                Object[] entry = undo.pop();
+                current[(Integer) entry[0]] = (Value) entry[1];
+            }
+        });
+    }
+
+    private void renameBlock(BasicBlock block, Value[] current, Deque<Object[]> undo) {
+        Instruction[] blockPhis = this.phis.get(block);
+        List<Instruction> instructions = block.getInstructions();
+        List<Instruction> kept = new ArrayList<Instruction>(instructions.size());
+        if (blockPhis != null) {
+            for (int slot = 0 ; slot < blockPhis.length ; slot++) {
+                if (blockPhis[slot] != null) {
+                    set(slot, blockPhis[slot].getResult(), current, undo);
+                    kept.add(blockPhis[slot]);
+                }
+            }
+        }
+
+        for (Instruction instruction : instructions) {
+            Integer slot = null;
+            switch (instruction.getOpcode()) {
+                case ALLOCA:
+                    slot = this.slots.get(instruction.getResult());
+                    break;
+                case LOAD:
+                    slot = this.slots.get(instruction.getOperand(0));
+                    if (slot != null) {
+                        this.replacements.put(instruction.getResult(), current[slot]);
+                    }
+                    break;
+                case STORE:
+                    slot = this.slots.get(instruction.getOperand(1));
+                    if (slot != null) {
+                        set(slot, resolve(instruction.getOperand(0)), current, undo);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (slot == null) {
+                kept.add(instruction);
+            }
+        }
+        instructions.clear();
+        instructions.addAll(kept);
+
+        for (BasicBlock successor : block.getSuccessors()) {
+            Instruction[] successorPhis = this.phis.get(successor);
+            if (successorPhis == null) {
+                continue;
+            }
+            int incoming = this.tree.getPredecessors(successor).indexOf(block);
+            for (int slot = 0 ; slot < successorPhis.length ; slot++) {
+                if (successorPhis[slot] != null) {
+                    successorPhis[slot].setOperand(incoming, current[slot]);
+                }
+            }
+        }
+    }
+
+    private static void set(int slot, Value value, Value[] current, Deque<Object[]> undo) {
+        undo.push(new Object[]{slot, current[slot]});
+        current[slot] = value;
+    }
+
+    /*A load can stand for the result of another load*/
+    private Value resolve(Value value) {
+        Value replacement = this.replacements.get(value);
+        while (replacement != null) {
+            value = replacement;
+            replacement = this.replacements.get(value);
+        }
+        return value;
+    }
+
+    private void rewrite() {
+        for (BasicBlock block : this.function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    instruction.setOperand(i, resolve(instruction.getOperand(i)));
+                }
+            }
+        }
+    }
+
+    /*A phi is needed only if something other than a phi that is not needed uses it*/
+    private void removeDeadPhis() {
+        Map<Register, Instruction> placed = new HashMap<Register, Instruction>();
+        for (Instruction[] blockPhis : this.phis.values()) {
+            for (Instruction phi : blockPhis) {
+                if (phi != null) {
+                    placed.put(phi.getResult(), phi);
+                }
+            }
+        }
+        Set<Instruction> live = new HashSet<Instruction>();
+        Deque<Instruction> worklist = new ArrayDeque<Instruction>();
+        for (BasicBlock block : this.function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                if (placed.containsKey(instruction.getResult())) {
+                    continue;
+                }
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    Instruction phi = placed.get(instruction.getOperand(i));
+                    if (phi != null && live.add(phi)) {
+                        worklist.push(phi);
+                    }
+                }
+            }
+        }
+        while (!worklist.isEmpty()) {
+            Instruction instruction = worklist.pop();
+            for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                Instruction phi = placed.get(instruction.getOperand(i));
+                if (phi != null && live.add(phi)) {
+                    worklist.push(phi);
+                }
+            }
+        }
+        for (Map.Entry<BasicBlock, Instruction[]> entry : this.phis.entrySet()) {
+            for (Instruction phi : entry.getValue()) {
+                if (phi != null && !live.contains(phi)) {
+                    entry.getKey().getInstructions().remove(phi);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything that is generated for a program: the vtables of its classes and its functions, in the order they are printed.
+ * The declarations of the runtime (calloc, printf, print_int, throw_oob) are the same for every program, see IRPrinter.
+ */
+public class Module {
+    private final List<VTable> vtables;
+    private final List<Function> functions;
+
+    public Module() {
+        this.vtables = new ArrayList<VTable>();
+        this.functions = new ArrayList<Function>();
+    }
+
+    public List<VTable> getVTables() {
+        return this.vtables;
+    }
+
+    public List<Function> getFunctions() {
+        return this.functions;
+    }
+
+    public void addVTable(VTable vtable) {
+        this.vtables.add(vtable);
+    }
+
+    public void addFunction(Function function) {
+        this.functions.add(function);
+    }
+}
@@ -0,0 +1,41 @@
+package ir;
+
+/**
+ * The instructions that the code generator uses, named as in LLVM.
+ */
+public enum Opcode {
+    ALLOCA,
+    LOAD,
+    STORE,
+    GETELEMENTPTR,
+    BITCAST,
+    ZEXT,
+    TRUNC,
+    ADD,
+    SUB,
+    MUL,
+    XOR,
+    ICMP,
+    PHI,
+    CALL,
+    BR,
+    RET;
+
+    private final String name = name().toLowerCase();
+
+    public boolean isTerminator() {
+        return this == BR || this == RET;
+    }
+
+    public boolean isCast() {
+        return this == BITCAST || this == ZEXT || this == TRUNC;
+    }
+
+    public boolean isBinary() {
+        return this == ADD || this == SUB || this == MUL || this == XOR;
+    }
+
+    public String toString() {
+        return this.name;
+    }
+}
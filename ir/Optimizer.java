@@ -0,0 +1,20 @@
+package ir;
+
+/**
+ * The passes that run on every function once it has been generated completely, in the order they run.
+ * A function that an error stopped is printed as far as it got and is never optimized.
+ */
+public class Optimizer {
+
+    public static void optimize(Function function) {
+        if (!function.isComplete()) {
+            return;
+        }
+        Mem2Reg.run(function);
+        SCCP.run(function);
+        RedundantLoadElimination.run(function);
+        BoundsCheckElimination.run(function);
+        DeadCodeElimination.run(function);
+        SimplifyCFG.run(function);
+    }
+}
@@ -0,0 +1,239 @@
+package ir;
+
+import java.util.*;
+
+/**
+ * Removes loads whose value is already known, so that the same array is the same register every time it is used.
+ * Fields are only ever accessed through %this, at a constant offset, so a field is known once it has been loaded or stored,
+ * until it is stored again or a method is called (any method can change any field). Stores to array elements and to
+ * objects that were just allocated can not change a field of %this. Which fields are known at the start of every block
+ * is found by iterating over the blocks until nothing changes, a field is only known where every predecessor knows the same value,
+ * which is how the field holding an array stays known around a loop that does not call a method or assign it.
+ * Every load of a field makes its result a value of the field, even where the field is already known (all of them are equal),
+ * so what a block knows only grows with what its predecessors know, and a predecessor that has not been visited yet knows
+ * everything: the iteration starts from the most that can be known and ends at the most that is.
+ * The length of an array (the i32 before its first element) is written once when the array is allocated, so a length
+ * that is loaded where the same length was already loaded in a dominating block is that load.
+ */
+public class RedundantLoadElimination {
+    private final Function function;
+    private final DominatorTree tree;
+    private final Map<Register, Instruction> definitions;
+    /*The value that the result of every removed load stands for*/
+    private final Map<Register, Value> replacements;
+
+    private RedundantLoadElimination(Function function) {
+        this.function = function;
+        this.tree = new DominatorTree(function);
+        this.definitions = definitions(function);
+        this.replacements = new HashMap<Register, Value>();
+    }
+
+    public static void run(Function function) {
+        RedundantLoadElimination elimination = new RedundantLoadElimination(function);
+        if (!function.getParameters().isEmpty()) {
+            elimination.forwardFields(function.getParameters().get(0));
+            elimination.rewrite();
+        }
+        elimination.reuseLengths();
+        elimination.rewrite();
+    }
+
+    static Map<Register, Instruction> definitions(Function function) {
+        Map<Register, Instruction> definitions = new HashMap<Register, Instruction>();
+        for (BasicBlock block : function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                if (instruction.getResult() != null) {
+                    definitions.put(instruction.getResult(), instruction);
+                }
+            }
+        }
+        return definitions;
+    }
+
+    /*Bitcasts do not change the address*/
+    static Value stripCasts(Value value, Map<Register, Instruction> definitions) {
+        Instruction definition = definitions.get(value);
+        while (definition != null && definition.getOpcode() == Opcode.BITCAST) {
+            value = definition.getOperand(0);
+            definition = definitions.get(value);
+        }
+        return value;
+    }
+
+    /*The array whose length a load reads, that is the pointer to its first element, or null if it loads anything else*/
+    static Value lengthOf(Instruction load, Map<Register, Instruction> definitions) {
+        if (load.getOpcode() != Opcode.LOAD || !load.getType().equals("i32")) {
+            return null;
+        }
+        Instruction address = definitions.get(stripCasts(load.getOperand(0), definitions));
+        if (address == null || address.getOpcode() != Opcode.GETELEMENTPTR || address.getOperandCount() != 2 || !address.getType().equals("i32")) {
+            return null;
+        }
+        Value index = address.getOperand(1);
+        if (!(index instanceof Constant) || ((Constant) index).getValue() != -1) {
+            return null;
+        }
+        return stripCasts(address.getOperand(0), definitions);
+    }
+
+    /*The offset of the field of %this at the address, or null if it is not such a field*/
+    private Integer fieldOffset(Value pointer, Register self) {
+        Value address = stripCasts(pointer, this.definitions);
+        if (address == self) {
+            return 0;
+        }
+        Instruction definition = this.definitions.get(address);
+        if (definition != null && definition.getOpcode() == Opcode.GETELEMENTPTR && definition.getOperandCount() == 2
+                && definition.getType().equals("i8") && definition.getOperand(0) == self && definition.getOperand(1) instanceof Constant) {
+            return ((Constant) definition.getOperand(1)).getValue();
+        }
+        return null;
+    }
+
+    private void forwardFields(Register self) {
+        List<BasicBlock> blocks = this.tree.getBlocks();
+        Map<BasicBlock, Map<Integer, Set<Value>>> out = new HashMap<BasicBlock, Map<Integer, Set<Value>>>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BasicBlock block : blocks) {
+                Map<Integer, Set<Value>> state = transfer(block, in(block, out), self, false);
+                if (!state.equals(out.get(block))) {
+                    out.put(block, state);
+                    changed = true;
+                }
+            }
+        }
+        for (BasicBlock block : blocks) {
+            transfer(block, in(block, out), self, true);
+        }
+    }
+
+    /*The values of every field that every predecessor knows, a predecessor that has not been visited yet knows everything*/
+    private Map<Integer, Set<Value>> in(BasicBlock block, Map<BasicBlock, Map<Integer, Set<Value>>> out) {
+        Map<Integer, Set<Value>> state = null;
+        if (block == this.function.getEntry()) {
+            return new HashMap<Integer, Set<Value>>();
+        }
+        for (BasicBlock predecessor : this.tree.getPredecessors(block)) {
+            Map<Integer, Set<Value>> known = out.get(predecessor);
+            if (known == null) {
+                continue;
+            }
+            if (state == null) {
+                state = new HashMap<Integer, Set<Value>>(known.size() * 2);
+                for (Map.Entry<Integer, Set<Value>> entry : known.entrySet()) {
+                    state.put(entry.getKey(), new LinkedHashSet<Value>(entry.getValue()));
+                }
+            }
+            else {
+                state.entrySet().removeIf(entry -> {
+                    Set<Value> values = known.get(entry.getKey());
+                    if (values == null) {
+                        return true;
+                    }
+                    entry.getValue().retainAll(values);
+                    return entry.getValue().isEmpty();
+                });
+            }
+        }
+        return state == null ? new HashMap<Integer, Set<Value>>() : state;
+    }
+
+    private Map<Integer, Set<Value>> transfer(BasicBlock block, Map<Integer, Set<Value>> state, Register self, boolean replace) {
+        for (Instruction instruction : block.getInstructions()) {
+            switch (instruction.getOpcode()) {
+                case LOAD: {
+                    Integer offset = fieldOffset(instruction.getOperand(0), self);
+                    if (offset == null) {
+                        break;
+                    }
+                    /*The first value is the oldest one, which every later one is replaced by*/
+                    Set<Value> known = state.computeIfAbsent(offset, key -> new LinkedHashSet<Value>());
+                    if (replace && !known.isEmpty()) {
+                        this.replacements.put(instruction.getResult(), known.iterator().next());
+                    }
+                    known.add(instruction.getResult());
+                    break;
+                }
+                case STORE: {
+                    Integer offset = fieldOffset(instruction.getOperand(1), self);
+                    if (offset != null) {
+                        Set<Value> known = new LinkedHashSet<Value>();
+                        known.add(instruction.getOperand(0));
+                        state.put(offset, known);
+                    }
+                    break;
+                }
+                case CALL:
+                    /*Only a method can change a field, the runtime functions are the globals without a class in their name*/
+                    if (!(instruction.getOperand(0) instanceof Global) || ((Global) instruction.getOperand(0)).getName().contains(".")) {
+                        state.clear();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return state;
+    }
+
+    private void reuseLengths() {
+        Map<Value, Register> lengths = new HashMap<Value, Register>();
+        Deque<List<Value>> added = new ArrayDeque<List<Value>>();
+        this.tree.walk(block -> {
+            List<Value> arrays = new ArrayList<Value>();
+            for (Instruction instruction : block.getInstructions()) {
+                Value array = lengthOf(instruction, this.definitions);
+                if (array == null) {
+                    continue;
+                }
+                Register known = lengths.get(array);
+                if (known != null) {
+                    this.replacements.put(instruction.getResult(), known);
+                }
+                else {
+                    lengths.put(array, instruction.getResult());
+                    arrays.add(array);
+                }
+            }
+            added.push(arrays);
+        }, block -> {
+            for (Value array : added.pop()) {
+                lengths.remove(array);
+            }
+        });
+    }
+
+    private Value resolve(Value value) {
+        Value replacement = this.replacements.get(value);
+        while (replacement != null) {
+            value = replacement;
+            replacement = this.replacements.get(value);
+        }
+        return value;
+    }
+
+    /*Loads that were replaced go away, along with the comments and blank lines in front of them*/
+    private void rewrite() {
+        if (this.replacements.isEmpty()) {
+            return;
+        }
+        for (BasicBlock block : this.function.getBlocks()) {
+            List<Instruction> kept = new ArrayList<Instruction>(block.getInstructions().size());
+            for (Instruction instruction : block.getInstructions()) {
+                if (instruction.getResult() != null && this.replacements.containsKey(instruction.getResult())) {
+                    continue;
+                }
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    instruction.setOperand(i, resolve(instruction.getOperand(i)));
+                }
+                kept.add(instruction);
+            }
+            block.getInstructions().clear();
+            block.getInstructions().addAll(kept);
+        }
+        this.replacements.clear();
+    }
+}
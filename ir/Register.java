@@ -0,0 +1,23 @@
+package ir;
+
+/**
+ * A virtual register of a function, written as %name.
+ * Registers of temporaries are named _N (see FunctionBuilder.register), the others keep the name of what they hold:
+ * %x for the stack slot of a variable x, %.x for the value of a parameter x, %this and %.this.
+ */
+public class Register extends Value {
+    private final String name;
+
+    public Register(String name, String type) {
+        super(type);
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String toString() {
+        return "%" + this.name;
+    }
+}
@@ -0,0 +1,325 @@
+package ir;
+
+import java.util.*;
+
+/**
+ * Sparse conditional constant propagation, as in "Constant Propagation with Conditional Branches" (Wegman and Zadeck).
+ * Every register starts out as unknown and can only move down to a constant and then to overdefined, while blocks are only
+ * visited once an edge into them is known to be taken, so a phi only meets the values that can really reach it.
+ * Afterwards every register that is a constant is replaced by an immediate (e.g. the add i32 5, 0 of a literal goes away
+ * and its uses read i32 5), a conditional branch on a constant becomes a plain branch and the blocks that are never
+ * reached are removed, along with the phi values that came from them.
+ * Loads, calls and anything that involves a pointer are overdefined, and so is undef, which keeps this simple and safe.
+ */
+public class SCCP {
+    /*The lattice value of a register that can hold more than one value*/
+    private static final Constant OVERDEFINED = new Constant("overdefined", 0);
+
+    private final Function function;
+    /*Registers that are missing are still unknown, registers that no instruction defines are parameters*/
+    private final Map<Register, Constant> values;
+    private final Set<Register> defined;
+    private final Map<Register, List<Instruction>> users;
+    private final Map<Instruction, BasicBlock> blocks;
+    private final Set<BasicBlock> executable;
+    private final Map<BasicBlock, Set<BasicBlock>> edges;
+    private final Deque<BasicBlock[]> edgeWorklist;
+    private final Deque<Instruction> instructionWorklist;
+
+    private SCCP(Function function) {
+        this.function = function;
+        this.values = new HashMap<Register, Constant>();
+        this.defined = new HashSet<Register>();
+        this.users = new HashMap<Register, List<Instruction>>();
+        this.blocks = new HashMap<Instruction, BasicBlock>();
+        this.executable = new HashSet<BasicBlock>();
+        this.edges = new HashMap<BasicBlock, Set<BasicBlock>>();
+        this.edgeWorklist = new ArrayDeque<BasicBlock[]>();
+        this.instructionWorklist = new ArrayDeque<Instruction>();
+
+        for (BasicBlock block : function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                this.blocks.put(instruction, block);
+                if (instruction.getResult() != null) {
+                    this.defined.add(instruction.getResult());
+                }
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    if (instruction.getOperand(i) instanceof Register) {
+                        this.users.computeIfAbsent((Register) instruction.getOperand(i), key -> new ArrayList<Instruction>(2)).add(instruction);
+                    }
+                }
+            }
+        }
+    }
+
+    public static void run(Function function) {
+        SCCP sccp = new SCCP(function);
+        sccp.solve();
+        sccp.rewrite();
+    }
+
+    private void solve() {
+        this.edgeWorklist.push(new BasicBlock[]{null, this.function.getEntry()});
+        while (!this.edgeWorklist.isEmpty() || !this.instructionWorklist.isEmpty()) {
+            while (!this.edgeWorklist.isEmpty()) {
+                BasicBlock[] edge = this.edgeWorklist.pop();
+                BasicBlock block = edge[1];
+                if (edge[0] != null && !this.edges.computeIfAbsent(edge[0], key -> new HashSet<BasicBlock>()).add(block)) {
+                    continue;
+                }
+                if (this.executable.add(block)) {
+                    for (Instruction instruction : block.getInstructions()) {
+                        visit(instruction);
+                    }
+                }
+                else {
+                    /*A new edge into a block that was already visited only changes its phis*/
+                    for (Instruction instruction : block.getInstructions()) {
+                        if (instruction.getOpcode() != Opcode.PHI) {
+                            break;
+                        }
+                        visit(instruction);
+                    }
+                }
+            }
+            while (!this.instructionWorklist.isEmpty()) {
+                Instruction instruction = this.instructionWorklist.pop();
+                if (this.executable.contains(this.blocks.get(instruction))) {
+                    visit(instruction);
+                }
+            }
+        }
+    }
+
+    private boolean isExecutable(BasicBlock from, BasicBlock to) {
+        Set<BasicBlock> successors = this.edges.get(from);
+        return successors != null && successors.contains(to);
+    }
+
+    /*null while the value is still unknown*/
+    private Constant valueOf(Value value) {
+        if (value instanceof Constant) {
+            return (Constant) value;
+        }
+        if (value instanceof Register && this.defined.contains(value)) {
+            return this.values.get(value);
+        }
+        return OVERDEFINED;
+    }
+
+    private void visit(Instruction instruction) {
+        Opcode opcode = instruction.getOpcode();
+        if (opcode == Opcode.BR) {
+            BasicBlock block = this.blocks.get(instruction);
+            if (instruction.getOperandCount() == 0) {
+                this.edgeWorklist.push(new BasicBlock[]{block, instruction.getBlock(0)});
+                return;
+            }
+            Constant condition = valueOf(instruction.getOperand(0));
+            if (condition == null) {
+                return;
+            }
+            if (condition == OVERDEFINED || condition.getValue() != 0) {
+                this.edgeWorklist.push(new BasicBlock[]{block, instruction.getBlock(0)});
+            }
+            if (condition == OVERDEFINED || condition.getValue() == 0) {
+                this.edgeWorklist.push(new BasicBlock[]{block, instruction.getBlock(1)});
+            }
+            return;
+        }
+        if (instruction.getResult() == null) {
+            return;
+        }
+
+        Constant value;
+        if (opcode == Opcode.PHI) {
+            value = null;
+            BasicBlock block = this.blocks.get(instruction);
+            for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                if (isExecutable(instruction.getBlock(i), block)) {
+                    value = meet(value, valueOf(instruction.getOperand(i)));
+                }
+            }
+        }
+        else if (opcode.isBinary() || opcode == Opcode.ICMP || opcode.isCast()) {
+            value = fold(instruction);
+        }
+        else {
+            value = OVERDEFINED;
+        }
+        update(instruction.getResult(), value);
+    }
+
+    private static Constant meet(Constant a, Constant b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.equals(b) ? a : OVERDEFINED;
+    }
+
+    private void update(Register register, Constant value) {
+        if (value == null) {
+            return;
+        }
+        Constant old = this.values.get(register);
+        if (old == OVERDEFINED || value.equals(old)) {
+            return;
+        }
+        this.values.put(register, old == null ? value : OVERDEFINED);
+        for (Instruction user : this.users.getOrDefault(register, Collections.<Instruction>emptyList())) {
+            this.instructionWorklist.push(user);
+        }
+    }
+
+    /*null if an operand is still unknown*/
+    private Constant fold(Instruction instruction) {
+        Constant[] operands = new Constant[instruction.getOperandCount()];
+        for (int i = 0 ; i < operands.length ; i++) {
+            operands[i] = valueOf(instruction.getOperand(i));
+            if (operands[i] == OVERDEFINED) {
+                return OVERDEFINED;
+            }
+        }
+        for (Constant operand : operands) {
+            if (operand == null) {
+                return null;
+            }
+        }
+
+        String type = instruction.getResult().getType();
+        int a = operands[0].getValue();
+        switch (instruction.getOpcode()) {
+            case ADD:
+                return constant(type, a + operands[1].getValue());
+            case SUB:
+                return constant(type, a - operands[1].getValue());
+            case MUL:
+                return constant(type, a * operands[1].getValue());
+            case XOR:
+                return constant(type, a ^ operands[1].getValue());
+            case ICMP:
+                return constant(type, compare(instruction.getPredicate(), a, operands[1].getValue()) ? 1 : 0);
+            case ZEXT:
+                return constant(type, a & mask(instruction.getOperand(0).getType()));
+            case TRUNC:
+                return constant(type, a);
+            default:
+                return OVERDEFINED;
+        }
+    }
+
+    private static boolean compare(String predicate, int a, int b) {
+        switch (predicate) {
+            case "eq":
+                return a == b;
+            case "ne":
+                return a != b;
+            case "slt":
+                return a < b;
+            case "sle":
+                return a <= b;
+            case "sgt":
+                return a > b;
+            case "sge":
+                return a >= b;
+            case "ult":
+                return Integer.compareUnsigned(a, b) < 0;
+            case "ule":
+                return Integer.compareUnsigned(a, b) <= 0;
+            case "ugt":
+                return Integer.compareUnsigned(a, b) > 0;
+            case "uge":
+                return Integer.compareUnsigned(a, b) >= 0;
+            default:
+                throw new IllegalArgumentException("Unknown icmp predicate " + predicate);
+        }
+    }
+
+    /*Values are kept the way they are written: i1 is 0 or 1, i8 is a signed byte*/
+    private static Constant constant(String type, int value) {
+        switch (type) {
+            case "i1":
+                return new Constant(type, value & 1);
+            case "i8":
+                return new Constant(type, (byte) value);
+            default:
+                return new Constant(type, value);
+        }
+    }
+
+    private static int mask(String type) {
+        switch (type) {
+            case "i1":
+                return 1;
+            case "i8":
+                return 0xff;
+            default:
+                return -1;
+        }
+    }
+
+    private void rewrite() {
+        List<BasicBlock> blocks = this.function.getBlocks();
+        blocks.removeIf(block -> !this.executable.contains(block));
+
+        for (BasicBlock block : blocks) {
+            List<Instruction> instructions = block.getInstructions();
+            List<Instruction> kept = new ArrayList<Instruction>(instructions.size());
+            for (Instruction instruction : instructions) {
+                /*A constant goes away along with the comments and blank lines in front of it*/
+                Constant value = instruction.getResult() == null ? null : this.values.get(instruction.getResult());
+                if (value != null && value != OVERDEFINED) {
+                    continue;
+                }
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    Constant operand = valueOf(instruction.getOperand(i));
+                    if (instruction.getOperand(i) instanceof Register && operand != null && operand != OVERDEFINED) {
+                        instruction.setOperand(i, operand);
+                    }
+                }
+                if (instruction.getOpcode() == Opcode.PHI) {
+                    instruction = removeIncoming(block, instruction);
+                }
+                else if (instruction.getOpcode() == Opcode.BR && instruction.getOperandCount() == 1) {
+                    instruction = foldBranch(block, instruction);
+                }
+                kept.add(instruction);
+            }
+            instructions.clear();
+            instructions.addAll(kept);
+        }
+    }
+
+    /*Only the values that come over an edge that is taken are left*/
+    private Instruction removeIncoming(BasicBlock block, Instruction phi) {
+        List<Value> values = new ArrayList<Value>(phi.getOperandCount());
+        List<BasicBlock> predecessors = new ArrayList<BasicBlock>(phi.getBlockCount());
+        for (int i = 0 ; i < phi.getBlockCount() ; i++) {
+            if (isExecutable(phi.getBlock(i), block)) {
+                values.add(phi.getOperand(i));
+                predecessors.add(phi.getBlock(i));
+            }
+        }
+        if (values.size() == phi.getOperandCount()) {
+            return phi;
+        }
+        Instruction replacement = new Instruction(Opcode.PHI, phi.getResult(), phi.getType(), null, values.toArray(new Value[0]), predecessors.toArray(new BasicBlock[0]));
+        replacement.setText(phi.getText());
+        return replacement;
+    }
+
+    private Instruction foldBranch(BasicBlock block, Instruction branch) {
+        boolean ifTrue = isExecutable(block, branch.getBlock(0));
+        boolean ifFalse = isExecutable(block, branch.getBlock(1));
+        if (ifTrue && ifFalse) {
+            return branch;
+        }
+        BasicBlock target = ifTrue ? branch.getBlock(0) : branch.getBlock(1);
+        Instruction replacement = new Instruction(Opcode.BR, null, null, null, new Value[0], new BasicBlock[]{target});
+        replacement.setText(branch.getText());
+        return replacement;
+    }
+}
@@ -0,0 +1,209 @@
+package ir;
+
+import java.util.*;
+
+/**
+ * Cleans up the control flow that is left once SCCP has pruned the branches that are never taken.
+ * A block that only branches on to another one is bypassed, its predecessors branch straight to its successor
+ * (the andclause_ blocks of a short circuiting and that is false are such blocks), unless a predecessor already
+ * branches there and the phis of the successor would have to tell the two edges apart.
+ * Then a block that is the only successor of its only predecessor is appended to that predecessor, so the code of an if
+ * whose condition is a constant ends up straight in between what comes before and after it.
+ */
+public class SimplifyCFG {
+    private final Function function;
+    /*The distinct predecessors of every block*/
+    private final Map<BasicBlock, List<BasicBlock>> predecessors;
+    private final Set<BasicBlock> removed;
+    /*The value that the result of every removed phi stands for*/
+    private final Map<Register, Value> replacements;
+
+    private SimplifyCFG(Function function) {
+        this.function = function;
+        this.predecessors = new HashMap<BasicBlock, List<BasicBlock>>();
+        this.removed = new HashSet<BasicBlock>();
+        this.replacements = new HashMap<Register, Value>();
+        for (BasicBlock block : function.getBlocks()) {
+            this.predecessors.putIfAbsent(block, new ArrayList<BasicBlock>(2));
+            for (BasicBlock successor : block.getSuccessors()) {
+                List<BasicBlock> list = this.predecessors.computeIfAbsent(successor, key -> new ArrayList<BasicBlock>(2));
+                if (!list.contains(block)) {
+                    list.add(block);
+                }
+            }
+        }
+    }
+
+    public static void run(Function function) {
+        SimplifyCFG simplifyCFG = new SimplifyCFG(function);
+        simplifyCFG.bypassEmptyBlocks();
+        simplifyCFG.mergeBlocks();
+        simplifyCFG.function.getBlocks().removeIf(simplifyCFG.removed::contains);
+        simplifyCFG.rewrite();
+    }
+
+    private void bypassEmptyBlocks() {
+        for (BasicBlock block : this.function.getBlocks()) {
+            if (block == this.function.getEntry() || block.getInstructions().size() != 1) {
+                continue;
+            }
+            Instruction branch = block.getTerminator();
+            if (branch == null || branch.getOpcode() != Opcode.BR || branch.getOperandCount() != 0 || branch.getBlock(0) == block) {
+                continue;
+            }
+            BasicBlock target = branch.getBlock(0);
+            List<BasicBlock> targetPredecessors = this.predecessors.get(target);
+            boolean hasPhis = target.getInstructions().get(0).getOpcode() == Opcode.PHI;
+
+            for (BasicBlock predecessor : new ArrayList<BasicBlock>(this.predecessors.get(block))) {
+                if (hasPhis && targetPredecessors.contains(predecessor)) {
+                    continue;
+                }
+                Instruction terminator = predecessor.getTerminator();
+                for (int i = 0 ; i < terminator.getBlockCount() ; i++) {
+                    if (terminator.getBlock(i) == block) {
+                        terminator.setBlock(i, target);
+                    }
+                }
+                /*Both ways of a branch can now lead to the same block*/
+                if (terminator.getBlockCount() == 2 && terminator.getBlock(0) == terminator.getBlock(1)) {
+                    Instruction replacement = new Instruction(Opcode.BR, null, null, null, new Value[0], new BasicBlock[]{target});
+                    replacement.setText(terminator.getText());
+                    predecessor.getInstructions().set(predecessor.getInstructions().size() - 1, replacement);
+                }
+                this.predecessors.get(block).remove(predecessor);
+                if (!targetPredecessors.contains(predecessor)) {
+                    targetPredecessors.add(predecessor);
+                }
+                addIncoming(target, block, predecessor);
+            }
+
+            if (this.predecessors.get(block).isEmpty()) {
+                targetPredecessors.remove(block);
+                removeIncoming(target, block);
+                this.removed.add(block);
+            }
+        }
+    }
+
+    private void mergeBlocks() {
+        for (BasicBlock block : this.function.getBlocks()) {
+            if (this.removed.contains(block)) {
+                continue;
+            }
+            while (true) {
+                Instruction branch = block.getTerminator();
+                if (branch == null || branch.getOpcode() != Opcode.BR || branch.getOperandCount() != 0) {
+                    break;
+                }
+                BasicBlock successor = branch.getBlock(0);
+                if (successor == block || successor == this.function.getEntry() || this.predecessors.get(successor).size() != 1) {
+                    break;
+                }
+                merge(block, successor);
+            }
+        }
+    }
+
+    private void merge(BasicBlock block, BasicBlock successor) {
+        List<Instruction> instructions = block.getInstructions();
+        /*The branch and the label go away, and so do the comments and blank lines in front of them*/
+        instructions.remove(instructions.size() - 1);
+        for (Instruction instruction : successor.getInstructions()) {
+            if (instruction.getOpcode() == Opcode.PHI) {
+                /*The only predecessor is the block itself*/
+                this.replacements.put(instruction.getResult(), instruction.getOperand(0));
+                continue;
+            }
+            instructions.add(instruction);
+        }
+
+        for (BasicBlock next : new LinkedHashSet<BasicBlock>(block.getSuccessors())) {
+            List<BasicBlock> list = this.predecessors.get(next);
+            list.set(list.indexOf(successor), block);
+            List<Instruction> phis = next.getInstructions();
+            for (int i = 0 ; i < phis.size() && phis.get(i).getOpcode() == Opcode.PHI ; i++) {
+                Instruction phi = phis.get(i);
+                for (int j = 0 ; j < phi.getBlockCount() ; j++) {
+                    if (phi.getBlock(j) == successor) {
+                        phi.setBlock(j, label(block));
+                    }
+                }
+            }
+        }
+        this.predecessors.remove(successor);
+        this.removed.add(successor);
+    }
+
+    /*A phi can only name a block that has a label*/
+    private BasicBlock label(BasicBlock block) {
+        if (block.getName() == null) {
+            block.setName("entry");
+        }
+        return block;
+    }
+
+    /*Phis have a fixed number of values, so a phi that gains or loses one is replaced by a new one*/
+    private void addIncoming(BasicBlock block, BasicBlock bypassed, BasicBlock predecessor) {
+        List<Instruction> instructions = block.getInstructions();
+        for (int i = 0 ; i < instructions.size() && instructions.get(i).getOpcode() == Opcode.PHI ; i++) {
+            Instruction phi = instructions.get(i);
+            Value[] values = new Value[phi.getOperandCount() + 1];
+            BasicBlock[] blocks = new BasicBlock[phi.getBlockCount() + 1];
+            for (int j = 0 ; j < phi.getBlockCount() ; j++) {
+                values[j] = phi.getOperand(j);
+                blocks[j] = phi.getBlock(j);
+                /*The value that came through the bypassed block now comes straight from the predecessor*/
+                if (blocks[j] == bypassed) {
+                    values[values.length - 1] = values[j];
+                }
+            }
+            blocks[blocks.length - 1] = label(predecessor);
+            instructions.set(i, phi(phi, values, blocks));
+        }
+    }
+
+    private static void removeIncoming(BasicBlock block, BasicBlock predecessor) {
+        List<Instruction> instructions = block.getInstructions();
+        for (int i = 0 ; i < instructions.size() && instructions.get(i).getOpcode() == Opcode.PHI ; i++) {
+            Instruction phi = instructions.get(i);
+            List<Value> values = new ArrayList<Value>(phi.getOperandCount());
+            List<BasicBlock> blocks = new ArrayList<BasicBlock>(phi.getBlockCount());
+            for (int j = 0 ; j < phi.getBlockCount() ; j++) {
+                if (phi.getBlock(j) != predecessor) {
+                    values.add(phi.getOperand(j));
+                    blocks.add(phi.getBlock(j));
+                }
+            }
+            instructions.set(i, phi(phi, values.toArray(new Value[0]), blocks.toArray(new BasicBlock[0])));
+        }
+    }
+
+    private static Instruction phi(Instruction phi, Value[] values, BasicBlock[] blocks) {
+        Instruction replacement = new Instruction(Opcode.PHI, phi.getResult(), phi.getType(), null, values, blocks);
+        replacement.setText(phi.getText());
+        return replacement;
+    }
+
+    private Value resolve(Value value) {
+        Value replacement = this.replacements.get(value);
+        while (replacement != null) {
+            value = replacement;
+            replacement = this.replacements.get(value);
+        }
+        return value;
+    }
+
+    private void rewrite() {
+        if (this.replacements.isEmpty()) {
+            return;
+        }
+        for (BasicBlock block : this.function.getBlocks()) {
+            for (Instruction instruction : block.getInstructions()) {
+                for (int i = 0 ; i < instruction.getOperandCount() ; i++) {
+                    instruction.setOperand(i, resolve(instruction.getOperand(i)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ir;
+
+/**
+ * A value that is not known, such as a local variable that is read before it is ever assigned.
+ */
+public class Undef extends Value {
+
+    public Undef(String type) {
+        super(type);
+    }
+
+    public String toString() {
+        return "undef";
+    }
+}
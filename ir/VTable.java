@@ -0,0 +1,25 @@
+package ir;
+
+import java.util.List;
+
+/**
+ * The global that holds the methods of a class, the method in slot i is getMethods().get(i).
+ * Every method is a Global whose type is the type of a pointer to it, e.g. i32 (i8*,i32)*.
+ */
+public class VTable {
+    private final Global global;
+    private final List<Global> methods;
+
+    public VTable(Global global, List<Global> methods) {
+        this.global = global;
+        this.methods = methods;
+    }
+
+    public Global getGlobal() {
+        return this.global;
+    }
+
+    public List<Global> getMethods() {
+        return this.methods;
+    }
+}
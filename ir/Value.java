@@ -0,0 +1,20 @@
+package ir;
+
+/**
+ * An operand of an instruction: a register, a constant or a global.
+ * Every value knows its LLVM type, which is printed along with it where the instruction needs it.
+ */
+public abstract class Value {
+    private final String type;
+
+    protected Value(String type) {
+        this.type = type;
+    }
+
+    public String getType() {
+        return this.type;
+    }
+
+    /*How the value is written as an operand, without its type*/
+    public abstract String toString();
+}
@@ -0,0 +1,38 @@
+/*
+ * RedundantLoadElimination: arr is loaded once between the two loops, and the second loop neither calls a method
+ * nor assigns arr, so no load of arr (the i32* at offset 8 of %this) or of its length may be left in the second loop.
+ * Prints 7.
+ */
+class RedundantLoadTwoLoops {
+    public static void main(String[] a) {
+        System.out.println(new R().run(5));
+    }
+}
+class R {
+    int[] arr;
+    public int run(int n) {
+        int i;
+        int t;
+        int s;
+        arr = new int[3];
+        i = 0;
+        while (i < n) {
+            arr = new int[(i + 1)];
+            i = i + 1;
+        }
+        s = arr.length;
+        i = 0;
+        while (i < 10) {
+            if (i < (arr.length)) {
+                t = arr[i];
+                s = s + t;
+                arr[i] = i;
+            }
+            else {
+                s = s + 1;
+            }
+            i = i + 2;
+        }
+        return s;
+    }
+}
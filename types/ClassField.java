@@ -2,7 +2,7 @@ package types;
 
 public class ClassField extends VariableDeclaration {
 
-    public ClassField(String identifier, String type) {
+    public ClassField(String identifier, DataType type) {
         super(identifier, type);
     }
 }
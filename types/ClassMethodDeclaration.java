@@ -5,18 +5,18 @@ import java.util.Map;
 
 public class ClassMethodDeclaration {
     private final String identifier;
-    private final String typeValue;
+    private final DataType typeValue;
     /*Some brilliant guys in Java decided it was a good idea not to provide Set interface with a get() method
       So, we have to do something like this...*/
     private Map<MethodParameter, MethodParameter> parameters;
 
-    public ClassMethodDeclaration(String identifier, String typeValue) {
+    public ClassMethodDeclaration(String identifier, DataType typeValue) {
         this.identifier = identifier;
         this.typeValue = typeValue;
         this.parameters = new LinkedHashMap<MethodParameter, MethodParameter>();
     }
 
-    public String getReturnType() {
+    public DataType getReturnType() {
         return this.typeValue;
     }
 
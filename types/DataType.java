@@ -0,0 +1,74 @@
+package types;
+
+/**
+ * A type of MiniJava, along with what the code generator needs to know about it.
+ * The primitive types are the singletons below and class types are interned by a TypeTable,
+ * so within one compilation two types are the same exactly when they are the same object.
+ */
+public final class DataType {
+    public static final DataType INT = new DataType("int", "i32", 4, null);
+    public static final DataType BOOLEAN = new DataType("boolean", "i1", 1, null);
+    public static final DataType INT_ARRAY = new DataType("int[]", "i32*", 8, INT);
+    /*Booleans are stored in arrays as bytes*/
+    public static final DataType BOOLEAN_ARRAY = new DataType("boolean[]", "i8*", 8, BOOLEAN);
+    /*Only the return type of main*/
+    public static final DataType VOID = new DataType("void", "void", 0, null);
+
+    private final String name;
+    private final String irType;
+    private final int size;
+    private final DataType elementType;
+    private final boolean isClass;
+
+    private DataType(String name, String irType, int size, DataType elementType) {
+        this.name = name;
+        this.irType = irType;
+        this.size = size;
+        this.elementType = elementType;
+        this.isClass = false;
+    }
+
+    /*Objects are pointers, see TypeTable for how class types are created*/
+    DataType(String className) {
+        this.name = className;
+        this.irType = "i8*";
+        this.size = 8;
+        this.elementType = null;
+        this.isClass = true;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getIRType() {
+        return this.irType;
+    }
+
+    /*Bytes taken by a field of this type*/
+    public int getSize() {
+        return this.size;
+    }
+
+    /*Fields are aligned to their size*/
+    public int getAlignment() {
+        return this.size;
+    }
+
+    public boolean isClass() {
+        return this.isClass;
+    }
+
+    public boolean isArray() {
+        return this.elementType != null;
+    }
+
+    /*The type of the elements of an array type, null for other types*/
+    public DataType getElementType() {
+        return this.elementType;
+    }
+
+    public String toString() {
+        return this.name;
+    }
+}
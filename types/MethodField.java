@@ -2,7 +2,7 @@ package types;
 
 public class MethodField extends VariableDeclaration {
 
-    public MethodField(String identifier, String type) {
+    public MethodField(String identifier, DataType type) {
         super(identifier, type);
     }
 }
@@ -2,7 +2,7 @@ package types;
 
 public class MethodParameter extends VariableDeclaration {
 
-    public MethodParameter(String identifier, String type) {
+    public MethodParameter(String identifier, DataType type) {
         super(identifier, type);
     }
 }
@@ -0,0 +1,34 @@
+package types;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The types of one compilation, one DataType object per name.
+ * Class types are created the first time their name is seen, so a class type can be looked up before the class is defined,
+ * whether the class exists is up to ClassDefinitions.
+ */
+public class TypeTable {
+    private final Map<String, DataType> classTypes;
+
+    public TypeTable() {
+        this.classTypes = new ConcurrentHashMap<String, DataType>();
+    }
+
+    public DataType get(String name) {
+        switch (name) {
+            case "int":
+                return DataType.INT;
+            case "boolean":
+                return DataType.BOOLEAN;
+            case "int[]":
+                return DataType.INT_ARRAY;
+            case "boolean[]":
+                return DataType.BOOLEAN_ARRAY;
+            case "void":
+                return DataType.VOID;
+            default:
+                return this.classTypes.computeIfAbsent(name, DataType::new);
+        }
+    }
+}
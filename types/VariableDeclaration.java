@@ -2,14 +2,14 @@ package types;
 
 public class VariableDeclaration {
     private final String identifier;
-    private final String type;
+    private final DataType type;
 
-    public VariableDeclaration(String identifier, String type) {
+    public VariableDeclaration(String identifier, DataType type) {
         this.identifier = identifier;
         this.type = type;
     }
 
-    public String getType() {
+    public DataType getType() {
         return this.type;
     }
 
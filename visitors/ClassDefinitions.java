@@ -24,10 +24,13 @@ class ClassDefinitionsArgument {
 }
 
 
-public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgument> {
+public class ClassDefinitions extends GJDepthFirst<Object, ClassDefinitionsArgument> {
 
     /*Class identifier and body*/
     private Map<ClassIdentifier, ClassBody> definitions;
+    private final TypeTable types;
+    /*Classes that are instantiated somewhere in the program (see Devirtualizer)*/
+    private final Set<String> allocatedClasses;
     private List<String> errorMessages;
     private int currentLine;
     private int currentColumn;
@@ -35,6 +38,8 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
     public ClassDefinitions() {
         this.errorMessages = new ArrayList<String>();
         this.definitions = new LinkedHashMap<ClassIdentifier, ClassBody>();
+        this.types = new TypeTable();
+        this.allocatedClasses = new HashSet<String>();
         this.currentLine = 1;
         this.currentColumn = 1;
     }
@@ -131,10 +136,31 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
         return this.definitions;
     }
 
-    private void addFieldToClassBody(String varDeclaration, ClassBody classBody) {
-        String[] tokens = varDeclaration.split("::");
+    public Set<String> getAllocatedClasses() {
+        return this.allocatedClasses;
+    }
+
+    /*Finds the classes of the AllocationExpressions of method bodies, a visitor of its own keeps the positions of errors as they are*/
+    private class AllocatedClasses extends GJDepthFirst<Object, Object> {
+        /**
+         * f0 -> "new"
+         * f1 -> Identifier()
+         * f2 -> "("
+         * f3 -> ")"
+         */
+        public Object visit(AllocationExpression n, Object argu) {
+            ClassDefinitions.this.allocatedClasses.add(n.f1.f0.toString());
+            return null;
+        }
+    }
+
+    /*The types of this compilation, the code generator must use the same ones*/
+    public TypeTable getTypes() {
+        return this.types;
+    }
 
-        ClassField classField = new ClassField(tokens[1], tokens[0]);
+    private void addFieldToClassBody(VariableDeclaration varDeclaration, ClassBody classBody) {
+        ClassField classField = new ClassField(varDeclaration.getIdentifier(), varDeclaration.getType());
         if (!classBody.getFields().containsKey(classField)) {
             classBody.addFieldOffset(classField);
             classBody.addField(classField);
@@ -146,7 +172,7 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
 
     private boolean isIdentical(ClassMethodDeclaration lhs, ClassMethodDeclaration rhs) {
         if (lhs.getIdentifier().equals(rhs.getIdentifier())) {
-            if (lhs.getReturnType().equals(rhs.getReturnType())) {
+            if (lhs.getReturnType() == rhs.getReturnType()) {
 
                 List<MethodParameter> lhsParameters = new ArrayList<MethodParameter>(lhs.getParameters().keySet().size());
                 List<MethodParameter> rhsParameters = new ArrayList<MethodParameter>(rhs.getParameters().keySet().size());
@@ -158,7 +184,7 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
                }
 
                for (int i = 0 ; i < lhsParameters.size() ; i++) {
-                   if (!lhsParameters.get(i).getType().equals(rhsParameters.get(i).getType())) {
+                   if (lhsParameters.get(i).getType() != rhsParameters.get(i).getType()) {
                        return false;
                    }
                }
@@ -225,14 +251,8 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
         }
     }
 
-    private void addParametersToClassMethodDeclaration(String parameters, ClassMethodDeclaration classMethodDeclaration) {
-        String[] parameterList = parameters.split(",");
-
-        for (int i = 0 ; i < parameterList.length ; i++) {
-            String[] tokens = parameterList[i].split("::");
-
-            MethodParameter methodParameter = new MethodParameter(tokens[1], tokens[0]);
-
+    private void addParametersToClassMethodDeclaration(List<MethodParameter> parameters, ClassMethodDeclaration classMethodDeclaration) {
+        for (MethodParameter methodParameter : parameters) {
             if (!classMethodDeclaration.getParameters().containsKey(methodParameter)) {
                 classMethodDeclaration.addToParameters(methodParameter);
             }
@@ -242,10 +262,8 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
         }
     }
 
-    private void addFieldToClassMethodBody(String varDeclaration, ClassMethodBody classMethodBody, ClassMethodDeclaration classMethodDeclaration) {
-        String[] tokens = varDeclaration.split("::");
-
-        MethodField methodField = new MethodField(tokens[1], tokens[0]);
+    private void addFieldToClassMethodBody(VariableDeclaration varDeclaration, ClassMethodBody classMethodBody, ClassMethodDeclaration classMethodDeclaration) {
+        MethodField methodField = new MethodField(varDeclaration.getIdentifier(), varDeclaration.getType());
         if (!classMethodBody.getFields().containsKey(methodField) && !classMethodDeclaration.getParameters().containsKey(methodField)) {
             classMethodBody.addField(methodField);
         }
@@ -299,7 +317,7 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        String ide = n.f1.accept(this, argu);
+        String ide = (String) n.f1.accept(this, argu);
 
         ClassBody mainClassBody = new ClassBody();
 
@@ -313,20 +331,22 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
             return null;
         }
 
-        ClassMethodDeclaration classMethodDeclaration = new ClassMethodDeclaration("main", "void");
+        ClassMethodDeclaration classMethodDeclaration = new ClassMethodDeclaration("main", DataType.VOID);
 
         ClassMethodBody classMethodBody = new ClassMethodBody();
 
         argu.currentClass = new SimpleEntry<ClassIdentifier, ClassBody>(classIdentifier, mainClassBody);
 
         for (int i = 0 ; i < n.f14.size() ; i++) {
-            String varDeclaration = n.f14.elementAt(i).accept(this, argu);
+            VariableDeclaration varDeclaration = (VariableDeclaration) n.f14.elementAt(i).accept(this, argu);
             addFieldToClassMethodBody(varDeclaration, classMethodBody, classMethodDeclaration);
         }
 
         /*After finishing processing the entire method body, add method to our class methods*/
         addMethodToClassBody(classMethodDeclaration, classMethodBody, argu);
 
+        n.f15.accept(new AllocatedClasses(), null);
+
         return null;
     }
 
@@ -334,7 +354,7 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
      * f0 -> ClassDeclaration()
      *       | ClassExtendsDeclaration()
      */
-    public String visit(TypeDeclaration n, ClassDefinitionsArgument argu) {
+    public Object visit(TypeDeclaration n, ClassDefinitionsArgument argu) {
         argu = new ClassDefinitionsArgument();
         return n.f0.accept(this, argu);
     }
@@ -348,7 +368,7 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
      * f5 -> "}"
      */
     public String visit(ClassDeclaration n, ClassDefinitionsArgument argu) {
-        String ide = n.f1.accept(this, argu);
+        String ide = (String) n.f1.accept(this, argu);
 
         ClassIdentifier classIdentifier = new ClassIdentifier(ide);
         ClassBody classBody = new ClassBody();
@@ -364,7 +384,7 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
         argu.currentClass = new SimpleEntry<ClassIdentifier, ClassBody>(classIdentifier, classBody);
         /*Accept all variable declarations */
         for (int i = 0 ; i < n.f3.size() ; i++) {
-            String varDeclaration = n.f3.elementAt(i).accept(this, argu);
+            VariableDeclaration varDeclaration = (VariableDeclaration) n.f3.elementAt(i).accept(this, argu);
             addFieldToClassBody(varDeclaration, argu.currentClass.getValue());
         }
 
@@ -388,8 +408,8 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
      * f7 -> "}"
      */
     public String visit(ClassExtendsDeclaration n, ClassDefinitionsArgument argu) {
-        String ide = n.f1.accept(this, argu);
-        String extendsIde = n.f3.accept(this, argu);
+        String ide = (String) n.f1.accept(this, argu);
+        String extendsIde = (String) n.f3.accept(this, argu);
 
         if (!definitions.containsKey(new ClassIdentifier(extendsIde))) {
             errorMessages.add("(line " + this.currentLine + ", column " + this.currentColumn + ") Cannot find extends symbol " + extendsIde);
@@ -411,7 +431,7 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
 
         /*Accept all variable declarations */
         for (int i = 0 ; i < n.f5.size() ; i++) {
-            String varDeclaration = n.f5.elementAt(i).accept(this, argu);
+            VariableDeclaration varDeclaration = (VariableDeclaration) n.f5.elementAt(i).accept(this, argu);
             addFieldToClassBody(varDeclaration, argu.currentClass.getValue());
         }
 
@@ -428,12 +448,12 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
      * f1 -> Identifier()
      * f2 -> ";"
      */
-    public String visit(VarDeclaration n, ClassDefinitionsArgument argu) {
-        String type = n.f0.accept(this, argu);
+    public VariableDeclaration visit(VarDeclaration n, ClassDefinitionsArgument argu) {
+        DataType type = (DataType) n.f0.accept(this, argu);
 
-        String ide = n.f1.accept(this, argu);
+        String ide = (String) n.f1.accept(this, argu);
 
-        return type + "::" + ide;
+        return new VariableDeclaration(ide, type);
     }
 
     /**
@@ -452,8 +472,8 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
      * f12 -> "}"
      */
     public String visit(MethodDeclaration n, ClassDefinitionsArgument argu) {
-        String type = n.f1.accept(this, argu);
-        String ide = n.f2.accept(this, argu);
+        DataType type = (DataType) n.f1.accept(this, argu);
+        String ide = (String) n.f2.accept(this, argu);
 
         ClassMethodDeclaration classMethodDeclaration = new ClassMethodDeclaration(ide, type);
 
@@ -464,84 +484,69 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
 
         ClassMethodBody classMethodBody = new ClassMethodBody();
 
-        String parameters;
+        List<MethodParameter> parameters;
         if (n.f4.present()) {
-            parameters = n.f4.accept(this, argu);
-            if (parameters == null) {
-                throw new RuntimeException("Wait, what?");
-            }
+            parameters = formalParameters((FormalParameterList) n.f4.node, argu);
             addParametersToClassMethodDeclaration(parameters, classMethodDeclaration);
         }
 
         /*Accept all declarations of a method inside the class*/
         for (int i = 0 ; i < n.f7.size() ; i++) {
-            String varDeclaration = n.f7.elementAt(i).accept(this, argu);
+            VariableDeclaration varDeclaration = (VariableDeclaration) n.f7.elementAt(i).accept(this, argu);
             addFieldToClassMethodBody(varDeclaration, classMethodBody, classMethodDeclaration);
         }
 
         /*After finishing processing the entire method body, add method to our class methods*/
         addMethodToClassBody(classMethodDeclaration, classMethodBody, argu);
 
+        AllocatedClasses allocatedClasses = new AllocatedClasses();
+        n.f8.accept(allocatedClasses, null);
+        n.f10.accept(allocatedClasses, null);
+
         return null;
     }
 
     /**
+     * The parameters are collected here rather than returned by visit, whose result is not a list.
      * f0 -> FormalParameter()
      * f1 -> FormalParameterTail()
+     * f1.f0 -> ( FormalParameterTerm() )*
      */
-    public String visit(FormalParameterList n, ClassDefinitionsArgument argu) {
-        String firstParam = n.f0.accept(this, argu);
-        String paramTail = n.f1.accept(this, argu);
+    private List<MethodParameter> formalParameters(FormalParameterList n, ClassDefinitionsArgument argu) {
+        List<MethodParameter> params = new ArrayList<MethodParameter>(n.f1.f0.size() + 1);
+        params.add((MethodParameter) n.f0.accept(this, argu));
+        for (int i = 0 ; i < n.f1.f0.size() ; i++) {
+            params.add((MethodParameter) n.f1.f0.elementAt(i).accept(this, argu));
+        }
 
-        return paramTail == null ? firstParam : firstParam + paramTail;
+        return params;
     }
 
     /**
      * f0 -> Type()
      * f1 -> Identifier()
      */
-    public String visit(FormalParameter n, ClassDefinitionsArgument argu) throws RuntimeException {
-        String type = n.f0.accept(this, argu);
-        String ide = n.f1.accept(this, argu);
+    public MethodParameter visit(FormalParameter n, ClassDefinitionsArgument argu) throws RuntimeException {
+        DataType type = (DataType) n.f0.accept(this, argu);
+        String ide = (String) n.f1.accept(this, argu);
 
         if (type != null && ide != null) {
-            return type + "::" + ide;
+            return new MethodParameter(ide, type);
         }
         else {
             throw new RuntimeException("Invalid syntax on parameter list");
         }
     }
 
-    /**
-     * f0 -> ( FormalParameterTerm() )*
-     */
-    public String visit(FormalParameterTail n, ClassDefinitionsArgument argu) {
-        if (n.f0.size() == 0) {
-            return null;
-        }
-
-        String retval = n.f0.elementAt(0).accept(this, argu);
-        for (int i = 1 ; i < n.f0.size() ; i++) {
-            retval += n.f0.elementAt(i).accept(this, argu);
-        }
-
-        return retval;
-    }
-
     /**
      * f0 -> ","
      * f1 -> FormalParameter()
      */
-    public String visit(FormalParameterTerm n, ClassDefinitionsArgument argu) {
-        String retval;
-
+    public MethodParameter visit(FormalParameterTerm n, ClassDefinitionsArgument argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        retval = n.f0.accept(this, argu);
-        retval += n.f1.accept(this, argu);
-
-        return retval;
+        return (MethodParameter) n.f1.accept(this, argu);
     }
 
     /**
@@ -550,23 +555,27 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
      *       | IntegerType()
      *       | Identifier()
      */
-    public String visit(Type n, ClassDefinitionsArgument argu) { return n.f0.accept(this, argu); }
+    public DataType visit(Type n, ClassDefinitionsArgument argu) {
+        Object type = n.f0.accept(this, argu);
+        /*An Identifier gives the name of a class*/
+        return type instanceof String ? this.types.get((String) type) : (DataType) type;
+    }
 
     /**
      * f0 -> BooleanArrayType()
      *       | IntegerArrayType()
      */
-    public String visit(ArrayType n, ClassDefinitionsArgument argu) { return n.f0.accept(this, argu); }
+    public DataType visit(ArrayType n, ClassDefinitionsArgument argu) { return (DataType) n.f0.accept(this, argu); }
 
     /**
      * f0 -> "boolean"
      * f1 -> "["
      * f2 -> "]"
      */
-    public String visit(BooleanArrayType n, ClassDefinitionsArgument argu) {
+    public DataType visit(BooleanArrayType n, ClassDefinitionsArgument argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return "boolean[]";
+        return DataType.BOOLEAN_ARRAY;
     }
 
     /**
@@ -574,28 +583,28 @@ public class ClassDefinitions extends GJDepthFirst<String, ClassDefinitionsArgum
      * f1 -> "["
      * f2 -> "]"
      */
-    public String visit(IntegerArrayType n, ClassDefinitionsArgument argu) {
+    public DataType visit(IntegerArrayType n, ClassDefinitionsArgument argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return "int[]";
+        return DataType.INT_ARRAY;
     }
 
     /**
      * f0 -> "boolean"
      */
-    public String visit(BooleanType n, ClassDefinitionsArgument argu) {
+    public DataType visit(BooleanType n, ClassDefinitionsArgument argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return "boolean";
+        return DataType.BOOLEAN;
     }
 
     /**
      * f0 -> "int"
      */
-    public String visit(IntegerType n, ClassDefinitionsArgument argu) {
+    public DataType visit(IntegerType n, ClassDefinitionsArgument argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return "int";
+        return DataType.INT;
     }
 
     /**
@@ -0,0 +1,106 @@
+package visitors;
+
+import types.ClassIdentifier;
+
+import java.util.*;
+
+/**
+ * The classes of a program numbered with dense ids, built once per compilation from the class definitions.
+ * Ids are given in preorder of the inheritance tree and every class keeps the last id of its subtree,
+ * so a class is derived of another one exactly when its id lies in the interval [id, subtreeEnd] of the other one.
+ */
+public class ClassHierarchy {
+    public static final int NONE = -1;
+
+    private final Map<String, Integer> ids;
+    private final String[] names;
+    private final int[] parents;
+    private final int[] subtreeEnds;
+
+    public ClassHierarchy(ClassDefinitions classDefinitions) {
+        Set<ClassIdentifier> classes = classDefinitions.getDefinitions().keySet();
+        int count = classes.size();
+        this.ids = new HashMap<String, Integer>(count * 2);
+        this.names = new String[count];
+        this.parents = new int[count];
+        this.subtreeEnds = new int[count];
+
+        /*Children of every class in the order they were declared, a class whose parent is missing is a root*/
+        Map<String, List<String>> children = new HashMap<String, List<String>>();
+        Map<String, String> parentNames = new HashMap<String, String>();
+        List<String> roots = new ArrayList<String>();
+        for (ClassIdentifier classIdentifier : classes) {
+            String parent = classIdentifier.getExtendsClassName();
+            if (parent != null && classes.contains(new ClassIdentifier(parent))) {
+                children.computeIfAbsent(parent, key -> new ArrayList<String>()).add(classIdentifier.getClassName());
+                parentNames.put(classIdentifier.getClassName(), parent);
+            }
+            else {
+                roots.add(classIdentifier.getClassName());
+            }
+        }
+
+        /*Preorder without recursion, chains of classes can be as long as the program*/
+        int next = 0;
+        Deque<String> stack = new ArrayDeque<String>();
+        for (int i = roots.size() - 1 ; i >= 0 ; i--) {
+            stack.push(roots.get(i));
+        }
+        while (!stack.isEmpty()) {
+            String name = stack.pop();
+            next = number(name, parentNames.get(name), next);
+            List<String> subclasses = children.getOrDefault(name, Collections.<String>emptyList());
+            for (int i = subclasses.size() - 1 ; i >= 0 ; i--) {
+                stack.push(subclasses.get(i));
+            }
+        }
+
+        /*Only a class on an inheritance cycle, which ClassDefinitions has already reported, can be left out, it is numbered as a root*/
+        for (ClassIdentifier classIdentifier : classes) {
+            if (!this.ids.containsKey(classIdentifier.getClassName())) {
+                next = number(classIdentifier.getClassName(), null, next);
+            }
+        }
+
+        /*A parent always has a smaller id than its subclasses, so one pass backwards is enough*/
+        for (int id = count - 1 ; id >= 0 ; id--) {
+            if (this.parents[id] != NONE) {
+                this.subtreeEnds[this.parents[id]] = Math.max(this.subtreeEnds[this.parents[id]], this.subtreeEnds[id]);
+            }
+        }
+    }
+
+    private int number(String name, String parent, int id) {
+        this.ids.put(name, id);
+        this.names[id] = name;
+        this.parents[id] = parent == null ? NONE : this.ids.get(parent);
+        this.subtreeEnds[id] = id;
+        return id + 1;
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+    /*NONE if there is no such class*/
+    public int getId(String className) {
+        Integer id = this.ids.get(className);
+        return id == null ? NONE : id;
+    }
+
+    public String getName(int id) {
+        return this.names[id];
+    }
+
+    public int getParent(int id) {
+        return this.parents[id];
+    }
+
+    /*Every class is derived of itself*/
+    public boolean isDerivedOf(int derived, int base) {
+        if (derived == NONE || base == NONE) {
+            return false;
+        }
+        return base <= derived && derived <= this.subtreeEnds[base];
+    }
+}
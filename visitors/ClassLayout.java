@@ -0,0 +1,123 @@
+package visitors;
+
+import types.ClassBody;
+import types.ClassField;
+import types.ClassMethodDeclaration;
+
+import java.util.*;
+
+/**
+ * Memory layout of the objects of one class: the vtable, the offset of every visible field and the size of an object.
+ * A layout starts as a copy of the layout of the superclass, so MemberIndex computes all of them once,
+ * superclasses first, and nothing is walked again when code is generated.
+ * Objects start with a pointer to the vtable, then the fields of the root class, down to the fields of the class itself,
+ * so the fields of a superclass are at the same offsets in all of its subclasses (see layFields for the order within a class).
+ * The offsets of ClassBody are those of declaration order and are not used for code generation.
+ */
+public class ClassLayout {
+    public static final int VTABLE_POINTER = 8;
+    /*Slot of a method that is not in the vtable, which is only main*/
+    public static final int STATIC = -1;
+
+    public final String className;
+    /*Methods in the order of the vtable, the method in slot i is vtable[i]*/
+    public final MemberIndex.Method[] vtable;
+    /*Bytes of all the fields, inherited ones included*/
+    public final int fieldsSize;
+    /*Bytes of an object, with the vtable pointer*/
+    public final int size;
+
+    private final Map<String, MemberIndex.Field> fields;
+    private final Map<String, MemberIndex.Method> methods;
+
+    ClassLayout(String className, ClassBody classBody, ClassLayout parent, boolean isMainClass) {
+        this.className = className;
+        this.fields = parent == null ? new HashMap<String, MemberIndex.Field>() : new HashMap<String, MemberIndex.Field>(parent.fields);
+        this.methods = parent == null ? new LinkedHashMap<String, MemberIndex.Method>() : new LinkedHashMap<String, MemberIndex.Method>(parent.methods);
+
+        this.fieldsSize = layFields(className, classBody, parent == null ? 0 : parent.fieldsSize);
+        this.size = VTABLE_POINTER + this.fieldsSize;
+
+        /*An override replaces the method of the superclass in its slot, other methods go at the end*/
+        int slots = parent == null ? 0 : parent.vtable.length;
+        for (ClassMethodDeclaration classMethodDeclaration : classBody.getMethods().keySet()) {
+            MemberIndex.Method overridden = this.methods.get(classMethodDeclaration.getIdentifier());
+            int slot;
+            if (isMainClass) {
+                slot = STATIC;
+            }
+            else if (overridden == null || overridden.slot == STATIC) {
+                slot = slots++;
+            }
+            else {
+                slot = overridden.slot;
+            }
+            this.methods.put(classMethodDeclaration.getIdentifier(), new MemberIndex.Method(classMethodDeclaration, className, slot));
+        }
+
+        this.vtable = new MemberIndex.Method[slots];
+        for (MemberIndex.Method method : this.methods.values()) {
+            if (method.slot != STATIC) {
+                this.vtable[method.slot] = method;
+            }
+        }
+    }
+
+    /**
+     * Places the fields of the class after those of the superclass, which are never moved.
+     * Every field is aligned (see DataType.getAlignment), and the largest fields are placed first so that little padding is needed,
+     * the padding that is still left (after the superclass or before a larger field) is filled with smaller fields when they fit.
+     * Fields of the same size keep the order they were declared in. Returns where the last field ends.
+     */
+    private int layFields(String className, ClassBody classBody, int start) {
+        List<ClassField> classFields = new ArrayList<ClassField>(classBody.getFieldOffsets().keySet());
+        classFields.sort(Comparator.comparingInt((ClassField classField) -> -classField.getType().getSize()));
+
+        /*Pairs of offset and length of the padding left so far*/
+        List<int[]> holes = new ArrayList<int[]>();
+        int end = start;
+        for (ClassField classField : classFields) {
+            int fieldSize = classField.getType().getSize();
+            int alignment = classField.getType().getAlignment();
+            int offset = -1;
+            for (int i = 0 ; i < holes.size() && offset == -1 ; i++) {
+                int[] hole = holes.get(i);
+                int aligned = align(hole[0], alignment);
+                if (aligned + fieldSize <= hole[0] + hole[1]) {
+                    offset = aligned;
+                    holes.remove(i);
+                    addHole(holes, hole[0], aligned - hole[0]);
+                    addHole(holes, aligned + fieldSize, hole[0] + hole[1] - aligned - fieldSize);
+                }
+            }
+            if (offset == -1) {
+                offset = align(end, alignment);
+                addHole(holes, end, offset - end);
+                end = offset + fieldSize;
+            }
+            this.fields.put(classField.getIdentifier(), new MemberIndex.Field(classField.getIdentifier(), classField.getType(), className, offset));
+        }
+        return end;
+    }
+
+    private static void addHole(List<int[]> holes, int offset, int length) {
+        if (length > 0) {
+            holes.add(new int[]{offset, length});
+        }
+    }
+
+    /*Objects start after the vtable pointer, which is aligned to 8 bytes, so an offset aligned here is also aligned in memory*/
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    /*null if the class has no such field*/
+    public MemberIndex.Field getField(String identifier) {
+        return this.fields.get(identifier);
+    }
+
+    /*null if the class has no such method*/
+    public MemberIndex.Method getMethod(String identifier) {
+        return this.methods.get(identifier);
+    }
+}
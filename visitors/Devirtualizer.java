@@ -0,0 +1,64 @@
+package visitors;
+
+import java.util.*;
+
+/**
+ * Finds the message sends that can only ever call one method, so that they can call it directly instead of through the vtable.
+ * The object of a message send is an instance of its class or of a subclass (class hierarchy analysis),
+ * and only classes that are allocated somewhere in the program can have instances (rapid type analysis),
+ * so the methods that a slot of a class can call are those of the allocated classes of its subtree.
+ * They are found for every class once per compilation, subclasses first: ids are given in preorder (see ClassHierarchy),
+ * so a subclass always has a larger id than its superclass.
+ */
+public class Devirtualizer {
+    /*A slot that can call more than one method*/
+    private static final MemberIndex.Method MANY = new MemberIndex.Method(null, null, ClassLayout.STATIC);
+
+    private final MemberIndex memberIndex;
+    /*The only method that every slot of every class can call, null if no allocated class can be there, or MANY*/
+    private final MemberIndex.Method[][] targets;
+
+    public Devirtualizer(ClassDefinitions classDefinitions, ClassHierarchy classHierarchy, MemberIndex memberIndex) {
+        this.memberIndex = memberIndex;
+        this.targets = new MemberIndex.Method[classHierarchy.size()][];
+        Set<String> allocatedClasses = classDefinitions.getAllocatedClasses();
+
+        for (int id = 0 ; id < this.targets.length ; id++) {
+            MemberIndex.Method[] vtable = memberIndex.getLayout(id).vtable;
+            this.targets[id] = allocatedClasses.contains(classHierarchy.getName(id)) ? vtable.clone() : new MemberIndex.Method[vtable.length];
+        }
+
+        /*A subclass has every slot of its superclass, and maybe more*/
+        for (int id = this.targets.length - 1 ; id >= 0 ; id--) {
+            int parent = classHierarchy.getParent(id);
+            if (parent == ClassHierarchy.NONE) {
+                continue;
+            }
+            MemberIndex.Method[] slots = this.targets[parent];
+            for (int slot = 0 ; slot < slots.length ; slot++) {
+                slots[slot] = meet(slots[slot], this.targets[id][slot]);
+            }
+        }
+    }
+
+    /*An inherited method is the same object in the layouts of the superclass and of the subclass*/
+    private static MemberIndex.Method meet(MemberIndex.Method a, MemberIndex.Method b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a == b ? a : MANY;
+    }
+
+    /*The only method that a message send to an object of the class can call, null if there may be more than one*/
+    public MemberIndex.Method getTarget(int classId, String identifier) {
+        MemberIndex.Method method = this.memberIndex.getMethod(classId, identifier);
+        if (method == null || method.slot == ClassLayout.STATIC) {
+            return null;
+        }
+        MemberIndex.Method target = this.targets[classId][method.slot];
+        return target == MANY ? null : target;
+    }
+}
@@ -3,15 +3,30 @@ package visitors;
 import syntaxtree.*;
 import visitor.GJDepthFirst;
 import types.*;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintStream;
+import emitters.FileIREmitter;
+import emitters.IREmitter;
+import ir.Constant;
+import ir.Function;
+import ir.FunctionBuilder;
+import ir.Global;
+import ir.IRPrinter;
+import ir.Module;
+import ir.Opcode;
+import ir.Optimizer;
+import ir.Register;
+import ir.VTable;
+import ir.Value;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
 import java.lang.reflect.Method;
 import java.text.ParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * A class method has a declaration and a body
@@ -24,7 +39,9 @@ import java.util.AbstractMap.SimpleEntry;
  * */
 class Argument {
     public SimpleEntry<ClassMethodDeclaration, ClassMethodBody> currentMethod;
+    public MethodScope currentScope;
     public SimpleEntry<ClassIdentifier, ClassBody> currentClass;
+    public int currentClassId;
     public Map<MethodParameter, MethodParameter> currentParameters;
     public Iterator<Map.Entry<MethodParameter, MethodParameter>> currentIterator;
     public int currentRegister;
@@ -44,8 +61,10 @@ enum IdentifierOrigin {
 /*This object type represents the current type we are currently working on*/
 class ObjectType {
     public String identifier;
-    public SimpleEntry<String, Set<String> > customType;
-    public String primitiveType;
+    /*null when only the name of an identifier is needed*/
+    public DataType type;
+    public ClassHierarchy classHierarchy;
+    public int classId;
 
     /*this variable represents the origin of an identifier
      * object (means that its an object variable)
@@ -57,59 +76,51 @@ class ObjectType {
 
     public ObjectType() {
         this.identifier = null;
-        this.primitiveType = null;
-        this.customType = null;
+        this.type = null;
+        this.classHierarchy = null;
+        this.classId = ClassHierarchy.NONE;
         this.isPrimitive = false;
         this.identifierOrigin = null;
         this.returnRegister = 0;
     }
 
-    public ObjectType(String primitiveType) {
+    public ObjectType(DataType primitiveType) {
         this.isPrimitive = true;
         this.identifierOrigin = null;
-        this.primitiveType = primitiveType;
+        this.type = primitiveType;
+        this.classId = ClassHierarchy.NONE;
         this.returnRegister = 0;
     }
 
-    public String getType() {
-        if (this.isPrimitive) {
-            return this.primitiveType;
-        }
-        else {
-            return this.customType.getKey();
-        }
+    public DataType getType() {
+        return this.type;
     }
 
     /**
-     * This function creates the Set of classes that our object has a 'is-a' relationship.
-     * For example.
-     * class A {} ... class B extends A {} ... class C extends B{} ...
-     * Then C is a custom type (primitiveType is null) and its Set (SimpleEntry<String, Set<String>>) representing 'is-a' relationship is the following:
-     * Set = {C, B, A};
+     * Whether the object has a 'is-a' relationship with a class is answered by the ClassHierarchy of the compilation,
+     * see isDerivedOf. A class that was never defined (an error ClassDefinitions has already reported) is only derived of itself.
      */
-    private static void fillCustomObject(ClassIdentifier classIdentifier, ClassDefinitions classDefinitions, ObjectType objectType) {
-        String extendsIdentifier = classDefinitions.getDefinitions().get(classIdentifier).getExtendsClassName();
-        if (extendsIdentifier != null) {
-            objectType.customType.getValue().add(extendsIdentifier);
-            fillCustomObject(new ClassIdentifier(extendsIdentifier), classDefinitions, objectType);
-        }
-    }
-
-    public static ObjectType createCustomObject(String identifier, String objectName, ClassDefinitions classDefinitions, IdentifierOrigin identifierOrigin) {
+    public static ObjectType createCustomObject(String identifier, DataType classType, ClassHierarchy classHierarchy, IdentifierOrigin identifierOrigin) {
         ObjectType returnObject = new ObjectType();
         returnObject.identifierOrigin = identifierOrigin;
         returnObject.identifier = identifier;
         returnObject.isPrimitive = false;
-        returnObject.customType = new SimpleEntry<String, Set<String>>(objectName, new HashSet<String>());
-        returnObject.customType.getValue().add(objectName);
-
-        fillCustomObject(new ClassIdentifier(objectName), classDefinitions, returnObject);
+        returnObject.type = classType;
+        returnObject.classHierarchy = classHierarchy;
+        returnObject.classId = classHierarchy.getId(classType.getName());
 
         return returnObject;
     }
 
+    private boolean isDerivedOf(int classId, DataType classType) {
+        if (this.classId == ClassHierarchy.NONE || classId == ClassHierarchy.NONE) {
+            return this.type == classType;
+        }
+        return this.classHierarchy.isDerivedOf(this.classId, classId);
+    }
+
     private boolean isDerivedOf(ObjectType rhsObject) {
-        return this.customType.getValue().contains(rhsObject.customType.getKey());
+        return isDerivedOf(rhsObject.classId, rhsObject.type);
     }
 
     /**
@@ -130,7 +141,7 @@ class ObjectType {
         }
         else {
             /*If both types are primitives*/
-            return rhsObject.primitiveType.equals(this.primitiveType);
+            return rhsObject.type == this.type;
         }
     }
 
@@ -139,14 +150,13 @@ class ObjectType {
      */
 
     public boolean equals(MethodParameter methodParameter) {
-        String type = methodParameter.getType();
-        boolean isCustomObject = !type.equals("int") && !type.equals("int[]") && !type.equals("boolean") && !type.equals("boolean[]");
+        DataType type = methodParameter.getType();
 
-        if (isCustomObject && !this.isPrimitive) {
+        if (type.isClass() && !this.isPrimitive) {
             /*If both types are custom objects check if the expression is a derived class of the declared parameter*/
-            return this.customType.getValue().contains(type);
+            return isDerivedOf(this.classHierarchy.getId(type.getName()), type);
         }
-        else if (isCustomObject) {
+        else if (type.isClass()) {
             return false;
         }
         else if (!this.isPrimitive) {
@@ -154,49 +164,89 @@ class ObjectType {
         }
         else {
             /*If both types are primitives*/
-            return type.equals(this.primitiveType);
+            return type == this.type;
         }
     }
 
-    public boolean equals(String primitiveType) {
-        if (this.primitiveType == null) {
-            return false;
-        }
-        return this.primitiveType.equals(primitiveType);
+    public boolean equals(DataType primitiveType) {
+        return this.isPrimitive && this.type == primitiveType;
     }
 
 }
 
+/*A function generated on its own, with what its generator counted and the error that stopped it, if any*/
+class MethodCode {
+    /*null if the error came before the function was started*/
+    public final Function function;
+    public final int methodCount;
+    public final int registerCount;
+    public final RuntimeException failure;
+    /*What the pool thread spent on the method, 0 if it ran on the thread that generates the program*/
+    public final long cpuNanos;
+    public final long allocatedBytes;
+
+    public MethodCode(Function function, int methodCount, int registerCount, RuntimeException failure, long cpuNanos, long allocatedBytes) {
+        this.function = function;
+        this.methodCount = methodCount;
+        this.registerCount = registerCount;
+        this.failure = failure;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+}
+
+/**
+ * Builds the Module of the program (see the ir package), which is printed to the emitter once the whole program is visited.
+ * Methods only read the tables of the program once ClassDefinitions is done, so each one is generated
+ * on a ForkJoinPool by its own generator, with its own Argument (registers and labels start from 0 in every function)
+ * and its own FunctionBuilder, which it also optimizes (see ir.Optimizer) once the function is complete.
+ * Functions are added to the module in source order, so the output is the same for any number of threads.
+ */
 public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
+    private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
 
     private ClassDefinitions classDefinitions;
+    private final ClassHierarchy classHierarchy;
+    private final MemberIndex memberIndex;
+    private final Devirtualizer devirtualizer;
     private int currentLine;
     private int currentColumn;
-    private PrintStream printStream;
-    private Map<String, String> types;
-    private final Map<String, Integer> sizes;
+    private IREmitter emitter;
+    private final Module module;
+    /*The function being generated*/
+    private FunctionBuilder function;
+    private final TypeTable types;
+    private int methodCount;
+    private int registerCount;
+    /*CPU time and allocations of the methods generated on other threads of the pool*/
+    private long workerCpuNanos;
+    private long workerAllocatedBytes;
+    private final ForkJoinPool pool;
+    /*Methods that were started but are not written yet, in source order*/
+    private final Deque<ForkJoinTask<MethodCode>> pendingMethods;
+    /*Run the Optimizer on every function once it is complete*/
+    private boolean optimize;
+
+    public IntermidiateRepresentation(ClassDefinitions classDefinitions, String filename) throws IOException {
+        this(classDefinitions, new FileIREmitter(Paths.get(filename.contains(".java") ? filename.replace(".java", ".ll") : (filename + ".ll"))));
+    }
 
-    public IntermidiateRepresentation(ClassDefinitions classDefinitions, String filename) throws FileNotFoundException  {
+    /*Every instance writes to its own emitter, so that multiple files can be compiled at the same time*/
+    public IntermidiateRepresentation(ClassDefinitions classDefinitions, IREmitter emitter) {
         this.classDefinitions = classDefinitions;
+        this.classHierarchy = new ClassHierarchy(classDefinitions);
+        this.memberIndex = new MemberIndex(classDefinitions, this.classHierarchy);
+        this.devirtualizer = new Devirtualizer(classDefinitions, this.classHierarchy, this.memberIndex);
         this.currentLine = 1;
         this.currentColumn = 1;
-        this.printStream = new PrintStream(new File(filename.contains(".java") ? filename.replace(".java", ".ll") : (filename + ".ll")));
-        this.types = new HashMap<String, String>() {{
-            put("int", "i32");
-            put("boolean", "i1");
-            put("int[]", "i32*");
-            put("boolean[]", "i8*");
-        }};
-        this.sizes = new HashMap<String, Integer>() {{
-            put("int", 4);
-            put("boolean", 1);
-            put("int[]", 8);
-            put("boolean[]", 8);
-        }};
-
-        System.setOut(this.printStream);
-
-        /*Print vtables*/
+        this.emitter = emitter;
+        this.module = new Module();
+        this.types = classDefinitions.getTypes();
+        this.pool = ForkJoinPool.commonPool();
+        this.pendingMethods = new ArrayDeque<ForkJoinTask<MethodCode>>();
+        this.optimize = true;
+
+        /*Vtables, the one of the main class is empty and comes last*/
         String mainClassName = null;
         Iterator<Map.Entry<ClassIdentifier, ClassBody>> iterator = classDefinitions.getDefinitions().entrySet().iterator();
         int count = 0;
@@ -209,167 +259,180 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
                 continue;
             }
 
-            Map<ClassMethodDeclaration, String> classMethods = new LinkedHashMap<ClassMethodDeclaration, String>();
-            getClassMethods(value.getValue(), value.getKey().getClassName(), classMethods);
-
-            System.out.println("@." + value.getKey().getClassName() + "_vtable = global [" +
-                    classMethods.size() + " x i8*] [");
+            ClassLayout classLayout = this.memberIndex.getLayout(this.classHierarchy.getId(value.getKey().getClassName()));
 
-            int currentOffset = 0;
-            Iterator<Map.Entry<ClassMethodDeclaration, String>> classMethodsIterator = classMethods.entrySet().iterator();
-            while (classMethodsIterator.hasNext()) {
-                Map.Entry<ClassMethodDeclaration, String> classMethodValue = classMethodsIterator.next();
+            List<Global> methods = new ArrayList<Global>(classLayout.vtable.length);
+            for (int slot = 0 ; slot < classLayout.vtable.length ; slot++) {
+                MemberIndex.Method method = classLayout.vtable[slot];
 
-                value.getValue().addRealOffset(classMethodValue.getKey().getIdentifier(), currentOffset);
-
-                System.out.print("\ti8* bitcast (" + getIRType(classMethodValue.getKey().getReturnType()) +
-                        " (i8*");
-
-                /*Print types of parameters*/
-                for (MethodParameter methodParameter : classMethodValue.getKey().getParameters().keySet()) {
-                    System.out.print("," + getIRType(methodParameter.getType()));
+                String type = method.declaration.getReturnType().getIRType() + " (i8*";
+                for (MethodParameter methodParameter : method.declaration.getParameters().keySet()) {
+                    type += "," + methodParameter.getType().getIRType();
                 }
 
-                System.out.print(")* @" + classMethodValue.getValue() + "." + classMethodValue.getKey().getIdentifier()
-                        + " to i8*)");
-
-                if (classMethodsIterator.hasNext()) {
-                    System.out.println(",");
-                }
-                else {
-                    System.out.println("\n]\n");
-                }
-
-                currentOffset++;
+                methods.add(new Global(method.declaringClass + "." + method.declaration.getIdentifier(), type + ")*"));
             }
+            this.module.addVTable(vtable(value.getKey().getClassName(), methods));
         }
 
-        System.out.println("@." + mainClassName + "_vtable = global [0 x i8*] []\n");
-
-        /*Print the first lines that are common for all programs*/
-        System.out.println("\ndeclare i8* @calloc(i32, i32)\n" +
-                "declare i32 @printf(i8*, ...)\n" +
-                "declare void @exit(i32)\n" +
-                "\n" +
-                "@_cint = constant [4 x i8] c\"%d\\0a\\00\"\n" +
-                "@_cOOB = constant [15 x i8] c\"Out of bounds\\0a\\00\"\n" +
-                "define void @print_int(i32 %i) {\n" +
-                "    %_str = bitcast [4 x i8]* @_cint to i8*\n" +
-                "    call i32 (i8*, ...) @printf(i8* %_str, i32 %i)\n" +
-                "    ret void\n" +
-                "}\n" +
-                "\n" +
-                "define void @throw_oob() {\n" +
-                "    %_str = bitcast [15 x i8]* @_cOOB to i8*\n" +
-                "    call i32 (i8*, ...) @printf(i8* %_str)\n" +
-                "    call void @exit(i32 1)\n" +
-                "    ret void\n" +
-                "}\n");
+        this.module.addVTable(vtable(mainClassName, new ArrayList<Global>()));
+    }
 
+    /*Generator of a single method, it shares the tables of the program but builds a function of its own*/
+    private IntermidiateRepresentation(IntermidiateRepresentation program) {
+        this.classDefinitions = program.classDefinitions;
+        this.classHierarchy = program.classHierarchy;
+        this.memberIndex = program.memberIndex;
+        this.devirtualizer = program.devirtualizer;
+        this.currentLine = 1;
+        this.currentColumn = 1;
+        this.emitter = null;
+        this.module = null;
+        this.types = program.types;
+        this.pool = null;
+        this.pendingMethods = null;
+        this.optimize = program.optimize;
     }
 
-    private void getClassMethods(ClassBody classBody, String className, Map<ClassMethodDeclaration, String> classMethods) {
-        if (classBody.getExtendsClassName() != null) {
-            ClassIdentifier classIdentifier = new ClassIdentifier(classBody.getExtendsClassName());
-            ClassBody extendsClassBody = this.classDefinitions.getDefinitions().get(classIdentifier);
+    private static Global vtableGlobal(String className, int methods) {
+        return new Global("." + className + "_vtable", "[" + methods + " x i8*]*");
+    }
 
-            getClassMethods(extendsClassBody, classBody.getExtendsClassName(), classMethods);
-        }
+    private static VTable vtable(String className, List<Global> methods) {
+        return new VTable(vtableGlobal(className, methods.size()), methods);
+    }
 
-        for (ClassMethodDeclaration classMethodDeclaration : classBody.getMethods().keySet()) {
-            classMethods.put(classMethodDeclaration, className);
-        }
+    public void setOptimize(boolean optimize) {
+        this.optimize = optimize;
     }
 
-    private Integer sizeOf(String type) {
-        Integer retval = this.sizes.get(type);
-        //If retval == null it means its an instance of an object
-        if (retval == null) {
-            return 8;
-        }
-        return retval;
+    public void close() {
+        this.emitter.close();
     }
 
-    private int _computeObjectSize(ClassBody classBody, int objectSize) {
-        if (classBody.getExtendsClassName() != null) {
-            ClassBody extendsClassBody = this.classDefinitions.getDefinitions().get(new ClassIdentifier(classBody.getExtendsClassName()));
-            int newObjectSize = 0;
-            for (ClassField classField : extendsClassBody.getFields().keySet()) {
-                newObjectSize += sizeOf(classField.getType());
-            }
-            return _computeObjectSize(extendsClassBody, objectSize + newObjectSize);
-        }
-        else {
-            return objectSize;
-        }
+    /*Functions are added as they are generated, the module is complete once the Goal has been visited*/
+    public Module getModule() {
+        return this.module;
     }
 
-    private int computeObjectSize(ClassBody classBody) {
-        int objectSize = 8;
-        for (ClassField classField : classBody.getFields().keySet()) {
-            objectSize += sizeOf(classField.getType());
-        }
+    /*Number of functions defined so far, main included*/
+    public int getMethodCount() {
+        return this.methodCount;
+    }
 
-        return _computeObjectSize(classBody, objectSize);
+    /*Number of virtual registers used by all of those functions*/
+    public int getRegisterCount() {
+        return this.registerCount;
     }
 
-    private boolean isArray(String array) {
-        if (array == null) {
-            return false;
-        }
+    /*CPU time that other threads spent generating the methods that were added to the module*/
+    public long getWorkerCpuNanos() {
+        return this.workerCpuNanos;
+    }
 
-        return array.endsWith("[]");
+    public long getWorkerAllocatedBytes() {
+        return this.workerAllocatedBytes;
     }
 
+    private boolean isArray(DataType type) {
+        return type != null && type.isArray();
+    }
 
-    private String checkCurrentClass(String identifier, Argument argu) {
-        ClassField classField = argu.currentClass.getValue().getFields().get(new ClassField(identifier, null));
-        if (classField != null) {
-            return classField.getType();
-        }
-        else {
-            return null;
-        }
+    /*Offset of a field of the current class, inherited fields included, from the start of the fields*/
+    private int fieldOffset(String identifier, Argument argu) {
+        MemberIndex.Field field = this.memberIndex.getField(argu.currentClassId, identifier);
+        return field == null ? 0 : field.offset;
     }
 
-    private String checkParents(String identifier, String extendsClassName, ClassDefinitions classDefinitions) {
-        if (extendsClassName != null) {
-            ClassIdentifier temp = new ClassIdentifier(extendsClassName);
-            ClassField classField = classDefinitions.getDefinitions().get(temp).getFields().get(new ClassField(identifier, null));
-            if (classField != null) {
-                return classField.getType();
-            }
-            return checkParents(identifier, classDefinitions.getDefinitions().get(temp).getExtendsClassName(), classDefinitions);
-        }
-        return null;
+    private Register reg(int number) {
+        return this.function.register(number);
     }
 
-    private boolean isCustomType(String type) {
-        return !type.equals("int") && !type.equals("int[]") && !type.equals("boolean") && !type.equals("boolean[]");
+    /**
+     * Branches to oob_ok if the condition holds and calls throw_oob otherwise, which does not return.
+     * Takes the current label, the caller moves to the next one when it is done with it.
+     */
+    private void checkBounds(Value condition, Argument current) {
+        this.function.br(condition, "oob_ok" + current.currentLabel, "oob_err" + current.currentLabel);
+        this.function.blankLine();
+        this.function.label("oob_err" + current.currentLabel);
+        this.function.call("void", new Global("throw_oob", "void ()*"));
+        this.function.br("oob_ok" + current.currentLabel);
+        this.function.blankLine();
+        this.function.label("oob_ok" + current.currentLabel);
     }
 
-    private String getIRType(String obj) {
-        return isCustomType(obj) ? "i8*" : this.types.get(obj);
+    /*Makes the method of the current class with this name the current method, along with the slots of its variables*/
+    private void enterMethod(String identifier, DataType returnType, Argument argu) {
+        MemberIndex.Method method = this.memberIndex.getMethod(argu.currentClassId, identifier);
+        ClassMethodDeclaration classMethodDeclaration = method == null ? new ClassMethodDeclaration(identifier, returnType) : method.declaration;
+        ClassMethodBody classMethodBody = argu.currentClass.getValue().getMethods().get(classMethodDeclaration);
+
+        argu.currentMethod = new SimpleEntry<ClassMethodDeclaration, ClassMethodBody>(classMethodDeclaration, classMethodBody);
+        argu.currentScope = classMethodBody == null ? null : new MethodScope(classMethodDeclaration, classMethodBody);
     }
 
-     /*Check if the method is contained in the subclasses of this object*/
-    private ClassMethodDeclaration containsMethod(String methodIdentifier, String currentClassName, ClassDefinitions classDefinitions) {
-        if (currentClassName != null) {
-            ClassIdentifier classIdentifier = new ClassIdentifier(currentClassName);
-            for (ClassMethodDeclaration classMethodDeclaration : classDefinitions.getDefinitions().get(classIdentifier).getMethods().keySet()) {
-                if (classMethodDeclaration.equals(new ClassMethodDeclaration(methodIdentifier, null))) {
-                    return classMethodDeclaration;
-                }
+    /**
+     * Starts generating a method of the current class on the pool.
+     * Errors found before any token sets the position point at the start of the method.
+     */
+    private void generateMethod(final MethodDeclaration n, Argument argu) {
+        final Argument current = new Argument();
+        current.currentClass = argu.currentClass;
+        current.currentClassId = argu.currentClassId;
+
+        final IntermidiateRepresentation generator = new IntermidiateRepresentation(this);
+        generator.currentLine = n.f0.beginLine;
+        generator.currentColumn = n.f0.beginColumn;
+
+        /*join can run a task on the thread that waits for it, whose time is already counted by whoever measures that thread*/
+        final Thread owner = Thread.currentThread();
+        this.pendingMethods.addLast(this.pool.submit(() -> {
+            boolean worker = Thread.currentThread() != owner;
+            long startCpu = worker ? threadMXBean.getCurrentThreadCpuTime() : 0;
+            long startAllocated = worker ? threadMXBean.getCurrentThreadAllocatedBytes() : 0;
+            RuntimeException failure = null;
+            try {
+                n.accept(generator, current);
+            } catch (RuntimeException re) {
+                failure = re;
             }
+            long cpu = worker ? threadMXBean.getCurrentThreadCpuTime() - startCpu : 0;
+            long allocated = worker ? threadMXBean.getCurrentThreadAllocatedBytes() - startAllocated : 0;
+            return new MethodCode(generator.function == null ? null : generator.function.getFunction(), generator.methodCount, generator.registerCount, failure, cpu, allocated);
+        }));
 
-            if (classDefinitions.getDefinitions().get(classIdentifier).getExtendsClassName() != null) {
-                return containsMethod(methodIdentifier, classDefinitions.getDefinitions().get(classIdentifier).getExtendsClassName(), classDefinitions);
+        /*Do not let the methods that are started get too far ahead of those added to the module*/
+        writeMethods(this.pool.getParallelism() * 4);
+    }
+
+    /**
+     * Adds the methods that are done to the module, in source order, and waits for the oldest ones until at most 'pending' are left.
+     * A method that failed is added as far as it got and its error is thrown here, as if it had been generated here,
+     * the methods after it are never added.
+     */
+    private void writeMethods(int pending) {
+        while (!this.pendingMethods.isEmpty() && (this.pendingMethods.size() > pending || this.pendingMethods.peekFirst().isDone())) {
+            MethodCode code = this.pendingMethods.pollFirst().join();
+
+            if (code.function != null) {
+                this.module.addFunction(code.function);
+            }
+            this.methodCount += code.methodCount;
+            this.registerCount += code.registerCount;
+            this.workerCpuNanos += code.cpuNanos;
+            this.workerAllocatedBytes += code.allocatedBytes;
+
+            if (code.failure != null) {
+                for (ForkJoinTask<MethodCode> method : this.pendingMethods) {
+                    method.cancel(false);
+                }
+                this.pendingMethods.clear();
+                throw code.failure;
             }
         }
-        return null;
     }
 
-
     /**
      * f0 -> MainClass()
      * f1 -> ( TypeDeclaration() )*
@@ -377,10 +440,22 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
      */
     public Object visit(Goal n, Object argu) {
         argu = new Argument();
-        n.f0.accept(this, argu);
+        try {
+            try {
+                n.f0.accept(this, argu);
 
-        for (int i = 0 ; i < n.f1.size() ; i++) {
-            n.f1.elementAt(i).accept(this, null);
+                for (int i = 0 ; i < n.f1.size() ; i++) {
+                    n.f1.elementAt(i).accept(this, null);
+                }
+            } catch (RuntimeException re) {
+                /*Methods that were started before the error come first, and so do their errors*/
+                writeMethods(0);
+                throw re;
+            }
+            writeMethods(0);
+        } finally {
+            /*Whatever was generated is printed, even if an error stopped the generation*/
+            new IRPrinter(this.emitter).print(this.module);
         }
 
         return null;
@@ -419,36 +494,36 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
             throw new RuntimeException("This was not supposed to happen");
         }
 
-        System.out.println("define i32 @main() {");
+        this.function = new FunctionBuilder("main", "i32");
+        this.function.beginBody();
+        this.module.addFunction(this.function.getFunction());
 
         current.performCheck = true;
         current.currentClass = new SimpleEntry<ClassIdentifier, ClassBody>(classIdentifier, classBody);
+        current.currentClassId = this.classHierarchy.getId(classIdentifier.getClassName());
         current.isMethodDeclaration = true;
 
         if (n.f14.size() > 0) {
-            System.out.println("\n\t;Allocate space for variable declarations");
+            this.function.text("\n\t;Allocate space for variable declarations");
         }
         for (int i = 0 ; i < n.f14.size() ; i++) {
             n.f14.elementAt(i).accept(this, current);
         }
-        System.out.println();
+        this.function.blankLine();
 
-        ClassMethodDeclaration classMethodDeclaration = new ClassMethodDeclaration("main", "void");
-        for (ClassMethodDeclaration methodDeclaration : current.currentClass.getValue().getMethods().keySet()) {
-            if (methodDeclaration.equals(classMethodDeclaration)) {
-                classMethodDeclaration = methodDeclaration;
-            }
-        }
-        ClassMethodBody classMethodBody = current.currentClass.getValue().getMethods().get(classMethodDeclaration);
-
-        current.currentMethod = new SimpleEntry<ClassMethodDeclaration, ClassMethodBody>(classMethodDeclaration, classMethodBody);
+        enterMethod("main", DataType.VOID, current);
 
         for (int i = 0 ; i < n.f15.size() ; i++) {
             n.f15.elementAt(i).accept(this, current);
         }
-        System.out.println();
-        System.out.println("\tret i32 0");
-        System.out.println("}\n");
+        this.function.blankLine();
+        this.function.ret("i32", FunctionBuilder.constant("i32", 0));
+        this.function.finish();
+        if (this.optimize) {
+            Optimizer.optimize(this.function.getFunction());
+        }
+        this.methodCount++;
+        this.registerCount += current.currentRegister;
         return null;
     }
 
@@ -485,13 +560,14 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         current.performCheck = true;
 
         current.currentClass = new SimpleEntry<ClassIdentifier, ClassBody>(classIdentifier, classBody);
+        current.currentClassId = this.classHierarchy.getId(classIdentifier.getClassName());
         current.isMethodDeclaration = false;
         for (int i = 0 ; i < n.f3.size() ; i++) {
             n.f3.elementAt(i).accept(this, current);
         }
 
         for (int i = 0 ; i < n.f4.size() ; i++) {
-            n.f4.elementAt(i).accept(this, current);
+            generateMethod((MethodDeclaration) n.f4.elementAt(i), current);
         }
 
         return null;
@@ -524,7 +600,9 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         current.performCheck = true;
 
         current.currentClass = new SimpleEntry<ClassIdentifier, ClassBody>(classIdentifier, classBody);
+        current.currentClassId = this.classHierarchy.getId(classIdentifier.getClassName());
         current.currentMethod = null;
+        current.currentScope = null;
 
         current.isMethodDeclaration = false;
         for (int i = 0 ; i < n.f5.size() ; i++) {
@@ -532,7 +610,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         }
 
         for (int i = 0 ; i < n.f6.size() ; i++) {
-            n.f6.elementAt(i).accept(this, current);
+            generateMethod((MethodDeclaration) n.f6.elementAt(i), current);
         }
 
         return null;
@@ -557,40 +635,34 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         Argument current = (Argument) argu;
         current.performCheck = true;
         current.currentMethod = null;
+        current.currentScope = null;
         current.currentRegister = 0;
         ObjectType returnType = (ObjectType) n.f1.accept(this, argu);
         current.performCheck = false;
         ObjectType methodIdentifier = (ObjectType) n.f2.accept(this, argu);
 
-        System.out.print("define " + getIRType(returnType.getType()) + " @" + current.currentClass.getKey().getClassName() + "." + methodIdentifier.identifier + "(i8* %this");
+        this.function = new FunctionBuilder(current.currentClass.getKey().getClassName() + "." + methodIdentifier.identifier, returnType.getType().getIRType());
+        this.function.parameter("this", "i8*");
 
         current.performCheck = true;
         current.isMethodDeclaration = true;
         if (n.f4.present()) {
             n.f4.accept(this, argu);
         } else {
-            System.out.println(") {\n");
-            System.out.println("\n\t;Also allocate space for \"this\"");
-            System.out.println("\t%.this = alloca i8*");
-            System.out.println("\tstore i8* %this, i8** %.this");
+            this.function.beginBody();
+            this.function.blankLine();
+            this.function.text("\n\t;Also allocate space for \"this\"");
+            this.function.store("i8*", this.function.register("this", "i8*"), this.function.alloca(".this", "i8*"));
         }
 
         if (n.f7.size() > 0) {
-            System.out.println("\t;Allocate space for variable declarations");
+            this.function.text("\t;Allocate space for variable declarations");
         }
         for (int i = 0; i < n.f7.size(); i++) {
             n.f7.elementAt(i).accept(this, argu);
         }
 
-        ClassMethodDeclaration classMethodDeclaration = new ClassMethodDeclaration(methodIdentifier.identifier, null);
-        for (ClassMethodDeclaration methodDeclaration : current.currentClass.getValue().getMethods().keySet()) {
-            if (methodDeclaration.equals(classMethodDeclaration)) {
-                classMethodDeclaration = methodDeclaration;
-            }
-        }
-        ClassMethodBody classMethodBody = current.currentClass.getValue().getMethods().get(classMethodDeclaration);
-
-        current.currentMethod = new SimpleEntry<ClassMethodDeclaration, ClassMethodBody>(classMethodDeclaration, classMethodBody);
+        enterMethod(methodIdentifier.identifier, null, current);
 
         for (int i = 0; i < n.f8.size(); i++) {
             n.f8.elementAt(i).accept(this, argu);
@@ -603,8 +675,14 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot convert " + expressionReturnType.getType() + " to " + returnType.getType() + " on return expression");
         }
 
-        System.out.println("\n\tret " + getIRType(expressionReturnType.getType()) + " %_" + expressionReturnType.returnRegister);
-        System.out.println("}\n");
+        this.function.blankLine();
+        this.function.ret(expressionReturnType.getType().getIRType(), reg(expressionReturnType.returnRegister));
+        this.function.finish();
+        if (this.optimize) {
+            Optimizer.optimize(this.function.getFunction());
+        }
+        this.methodCount++;
+        this.registerCount += current.currentRegister;
 
         return null;
     }
@@ -625,8 +703,10 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         ObjectType objectIdentifier = (ObjectType) n.f1.accept(this, argu);
         current.performCheck = tmp;
 
-        if (current.isMethodDeclaration)
-            System.out.println("\t%" + objectIdentifier.identifier + " = alloca " + getIRType(objectType.getType()) + "\n");
+        if (current.isMethodDeclaration) {
+            this.function.alloca(objectIdentifier.identifier, objectType.getType().getIRType());
+            this.function.blankLine();
+        }
 
         return objectIdentifier.identifier;
     }
@@ -634,45 +714,32 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
     /**
      * f0 -> FormalParameter()
      * f1 -> FormalParameterTail()
+     * f1.f0 -> ( FormalParameterTerm() )*
      */
     public Object visit(FormalParameterList n, Object argu) {
         ((Argument) argu).produceCode = false;
 
-        String[] returnValues = (String[]) n.f0.accept(this, argu);
-        List<String[]> returnValuesList = (List<String[]>) n.f1.accept(this, argu);
-
-        System.out.println(") {\n");
-
-        System.out.println("\t;Allocate space for parameters");
+        List<Register> parameters = new ArrayList<Register>(n.f1.f0.size() + 1);
+        parameters.add((Register) n.f0.accept(this, argu));
+        for (int i = 0 ; i < n.f1.f0.size() ; i++) {
+            parameters.add((Register) n.f1.f0.elementAt(i).accept(this, argu));
+        }
 
-        System.out.println(returnValues[0]);
-        System.out.println(returnValues[1]);
+        this.function.beginBody();
+        this.function.blankLine();
+        this.function.text("\t;Allocate space for parameters");
 
-        for (String[] values : returnValuesList) {
-            System.out.println(values[0]);
-            System.out.println(values[1]);
+        /*The stack slot of %.x is %x*/
+        for (Register parameter : parameters) {
+            this.function.store(parameter.getType(), parameter, this.function.alloca(parameter.getName().substring(1), parameter.getType()));
         }
 
-        System.out.println("\n\t;Also allocate space for \"this\"");
-        System.out.println("\t%.this = alloca i8*");
-        System.out.println("\tstore i8* %this, i8** %.this");
+        this.function.text("\n\t;Also allocate space for \"this\"");
+        this.function.store("i8*", this.function.register("this", "i8*"), this.function.alloca(".this", "i8*"));
 
         return null;
     }
 
-    /**
-     * f0 -> ( FormalParameterTerm() )*
-     */
-    public Object visit(FormalParameterTail n, Object argu) {
-        List<String[]> returnValues = new ArrayList<String[]>();
-
-        for (int i = 0 ; i < n.f0.size(); i++) {
-            returnValues.add((String[]) n.f0.elementAt(i).accept(this, argu));
-        }
-
-        return returnValues;
-    }
-
     /**
      * f0 -> ","
      * f1 -> FormalParameter()
@@ -695,14 +762,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         ObjectType objectIdentifier = (ObjectType) n.f1.accept(this, argu);
         current.performCheck = tmp;
 
-        System.out.print(", " + getIRType(objectType.getType()) + " %." + objectIdentifier.identifier);
-
-        String[] returnValues = new String[]{
-                "\t%" + objectIdentifier.identifier + " = alloca " + getIRType(objectType.getType()),
-                "\tstore " + getIRType(objectType.getType()) + " %." + objectIdentifier.identifier + ", " + getIRType(objectType.getType()) + "* %" + objectIdentifier.identifier
-        };
-
-        return returnValues;
+        return this.function.parameter("." + objectIdentifier.identifier, objectType.getType().getIRType());
     }
 
 
@@ -744,26 +804,24 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         }
         switch (identifierType.identifierOrigin) {
             case LOCAL:
-                System.out.println("\tstore " + getIRType(expressionType.getType()) + " %_" + expressionType.returnRegister + ", " + getIRType(expressionType.getType()) + "* %" + identifierType.identifier);
+                String irType = expressionType.getType().getIRType();
+                this.function.store(irType, reg(expressionType.returnRegister), this.function.register(identifierType.identifier, irType + "*"));
                 break;
             case OBJECT:
-                System.out.println("\n\t;Get variable from object instance\n");
+                this.function.text("\n\t;Get variable from object instance\n");
 
-                Integer identifierOffset = current.currentClass.getValue().getFieldOffsets().get(new ClassField(identifierType.identifier, null));
-                if (identifierOffset == null) {
-                    identifierOffset = 0;
-                }
+                int identifierOffset = fieldOffset(identifierType.identifier, current);
 
-                System.out.println("\t%_" + current.currentRegister + " = getelementptr i8, i8* %this, i32 " + (identifierOffset + 8));
+                this.function.getelementptr(current.currentRegister, "i8", this.function.register("this", "i8*"), FunctionBuilder.constant("i32", identifierOffset + 8));
                 current.currentRegister++;
-                System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + (current.currentRegister - 1) + " to " + getIRType(identifierType.getType()) + "*");
-                System.out.println("\tstore " + getIRType(expressionType.getType()) + " %_" + expressionType.returnRegister + ", " + getIRType(identifierType.getType()) + "* %_" + current.currentRegister);
+                this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), identifierType.getType().getIRType() + "*");
+                this.function.store(expressionType.getType().getIRType(), reg(expressionType.returnRegister), reg(current.currentRegister));
                 current.currentRegister++;
                 break;
             default:
                 throw new RuntimeException("This should not have happened");
         }
-        System.out.println();
+        this.function.blankLine();
         return null;
     }
 
@@ -782,8 +840,8 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         ObjectType arrayType = (ObjectType) n.f0.accept(this, argu);
 
         if (arrayType.isPrimitive) {
-            if (!isArray(arrayType.primitiveType)) {
-                throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, " + arrayType.primitiveType + " is not an array");
+            if (!isArray(arrayType.type)) {
+                throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, " + arrayType.type + " is not an array");
             }
 
             current.produceCode = true;
@@ -797,81 +855,72 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot assign " + assignmentExpressionType.getType() + " object to " + arrayType.getType());
             }
 
-            if (!arrayType.primitiveType.substring(0, arrayType.primitiveType.length() - 2).equals(assignmentExpressionType.primitiveType)) {
-                throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot assign " + assignmentExpressionType.primitiveType + " to " + arrayType.primitiveType.substring(0, arrayType.primitiveType.length() - 2));
+            if (arrayType.type.getElementType() != assignmentExpressionType.type) {
+                throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot assign " + assignmentExpressionType.type + " to " + arrayType.type.getElementType());
             }
-            if (!accessExpressionType.equals("int")) {
+            if (!accessExpressionType.equals(DataType.INT)) {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, index of array access should be int");
             }
 
-            System.out.println("\t;Get array pointer");
-            String arrayIRType = getIRType(arrayType.getType());
+            this.function.text("\t;Get array pointer");
+            String arrayIRType = arrayType.getType().getIRType();
             switch(arrayType.identifierOrigin) {
                 case OBJECT:
-                    Integer offset = current.currentClass.getValue().getFieldOffsets().get(new ClassField(arrayType.identifier, null));
-                    if (offset == null) {
-                        offset = 0;
-                    }
+                    int offset = fieldOffset(arrayType.identifier, current);
 
-                    System.out.println("\t%_" + current.currentRegister + " = getelementptr i8, i8* %this, i32 " + (offset + 8));
+                    this.function.getelementptr(current.currentRegister, "i8", this.function.register("this", "i8*"), FunctionBuilder.constant("i32", offset + 8));
                     current.currentRegister++;
-                    System.out.println("\t%_" + current.currentRegister + " =  bitcast i8* %_" + (current.currentRegister - 1) + " to " + arrayIRType + "*");
+                    this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), arrayIRType + "*");
                     current.currentRegister++;
                     break;
                 case LOCAL:
-                    System.out.println("\t%_" + current.currentRegister + " = getelementptr " + arrayIRType + ", " + arrayIRType + "* %" + arrayType.identifier + ", i32 0");
+                    this.function.getelementptr(current.currentRegister, arrayIRType, this.function.register(arrayType.identifier, arrayIRType + "*"), FunctionBuilder.constant("i32", 0));
                     current.currentRegister++;
                     break;
             }
 
-            System.out.println("\t%_" + current.currentRegister + " = load " + arrayIRType + ", " + arrayIRType + "* %_" + (current.currentRegister - 1));
+            this.function.load(current.currentRegister, arrayIRType, reg(current.currentRegister - 1));
             int arrayBaseRegister = current.currentRegister;
             current.currentRegister++;
 
             /*Check if accessExpressionType is valid index*/
             String elementType = "i32";
-            if (arrayType.primitiveType.startsWith("boolean")) {
+            if (arrayType.type == DataType.BOOLEAN_ARRAY) {
                 /*If its a boolean array, it means that we need to also do a bitcast because elements are of type i8*/
                 elementType = "i8";
-                System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + arrayBaseRegister + " to i32*");
+                this.function.cast(current.currentRegister, Opcode.BITCAST, reg(arrayBaseRegister), "i32*");
                 current.currentRegister++;
-                System.out.println("\t%_" + current.currentRegister + " = getelementptr i32, i32* %_" + (current.currentRegister - 1) + ", i32 -1");
+                this.function.getelementptr(current.currentRegister, "i32", reg(current.currentRegister - 1), FunctionBuilder.constant("i32", -1));
             }
             else {
-                System.out.println("\t%_" + current.currentRegister + " = getelementptr i32, i32* %_" + arrayBaseRegister + ", i32 -1");
+                this.function.getelementptr(current.currentRegister, "i32", reg(arrayBaseRegister), FunctionBuilder.constant("i32", -1));
             }
 
             current.currentRegister++;
-            System.out.println("\t%_" + current.currentRegister + " = load i32, i32* %_" + (current.currentRegister - 1));
+            this.function.load(current.currentRegister, "i32", reg(current.currentRegister - 1));
             current.currentRegister++;
 
             /*Check if out of bounds*/
-            System.out.println("\t%_" + current.currentRegister + " = icmp ult i32 %_" + accessExpressionType.returnRegister + ", %_" + (current.currentRegister - 1));
+            this.function.icmp(current.currentRegister, "ult", "i32", reg(accessExpressionType.returnRegister), reg(current.currentRegister - 1));
             current.currentRegister++;
-            System.out.println("\tbr i1 %_" + (current.currentRegister - 1) + ", label %oob_ok" + current.currentLabel + ", label %oob_err" + current.currentLabel);
-            System.out.println();
-            System.out.println("\toob_err" + current.currentLabel + ":");
-            System.out.println("\tcall void @throw_oob()");
-            System.out.println("\tbr label %oob_ok" + current.currentLabel);
-            System.out.println();
-            System.out.println("\toob_ok" + current.currentLabel + ":");
+            checkBounds(reg(current.currentRegister - 1), current);
 
             /*OK, now access array*/
-            System.out.println("\t%_" + current.currentRegister + " = getelementptr " + elementType + ", " + arrayIRType + " %_" + arrayBaseRegister + ", i32 %_" + accessExpressionType.returnRegister);
-            if (elementType.equals("i8") && getIRType(assignmentExpressionType.getType()).equals("i1")) {
+            this.function.getelementptr(current.currentRegister, elementType, reg(arrayBaseRegister), reg(accessExpressionType.returnRegister));
+            if (elementType.equals("i8") && assignmentExpressionType.getType() == DataType.BOOLEAN) {
                 /*This means that we access array of booleans, we need to convert whats returned by the array to i1*/
                 current.currentRegister++;
-                System.out.println("\t%_" + current.currentRegister + " = zext i1 %_" + assignmentExpressionType.returnRegister + " to i8");
-                System.out.println("\tstore " + elementType + " %_" + current.currentRegister + ", " + arrayIRType + " %_" + (current.currentRegister - 1));
+                this.function.cast(current.currentRegister, Opcode.ZEXT, reg(assignmentExpressionType.returnRegister), "i8");
+                this.function.store(elementType, reg(current.currentRegister), reg(current.currentRegister - 1));
             }
             else {
-                System.out.println("\tstore " + elementType + " %_" + assignmentExpressionType.returnRegister + ", " + arrayIRType + " %_" + current.currentRegister);
+                this.function.store(elementType, reg(assignmentExpressionType.returnRegister), reg(current.currentRegister));
             }
             current.currentRegister++;
             current.currentLabel++;
         }
         else {
-            throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, " + arrayType.customType.getKey() + " is not an array");
+            throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, " + arrayType.type + " is not an array");
         }
 
         return null;
@@ -895,24 +944,26 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        if (!exprType.equals("boolean")) {
+        if (!exprType.equals(DataType.BOOLEAN)) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, non-boolean type on if statement");
         }
 
         int label = current.currentLabel++;
 
-        System.out.println("\n\t;If statement\n");
-        System.out.println("\tbr i1 %_" + exprType.returnRegister + ", label %if_then_" + label + ", label %if_else_" + label);
+        this.function.text("\n\t;If statement\n");
+        this.function.br(reg(exprType.returnRegister), "if_then_" + label, "if_else_" + label);
 
-        System.out.println("\tif_then_" + label + ":");
+        this.function.label("if_then_" + label);
         n.f4.accept(this, argu);
-        System.out.println("\tbr label %if_end_" + label + "\n");
+        this.function.br("if_end_" + label);
+        this.function.blankLine();
 
-        System.out.println("\tif_else_" + label + ":");
+        this.function.label("if_else_" + label);
         n.f6.accept(this, argu);
-        System.out.println("\tbr label %if_end_" + label + "\n");
+        this.function.br("if_end_" + label);
+        this.function.blankLine();
 
-        System.out.println("\tif_end_" + label + ":");
+        this.function.label("if_end_" + label);
 
         return null;
     }
@@ -929,26 +980,27 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         current.produceCode = true;
 
         int label_number = current.currentLabel++;
-        System.out.println("\n\t;While statement\n");
-        System.out.println("\tbr label %loop_again_" + label_number);
-        System.out.println("\tloop_again_" + label_number + ":");
+        this.function.text("\n\t;While statement\n");
+        this.function.br("loop_again_" + label_number);
+        this.function.label("loop_again_" + label_number);
 
         ObjectType exprType = (ObjectType) n.f2.accept(this, argu);
 
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        if (!exprType.equals("boolean")) {
+        if (!exprType.equals(DataType.BOOLEAN)) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, non-boolean type on while statement");
         }
 
-        System.out.println("\tbr i1 %_" + exprType.returnRegister + ", label %loop_then_" + label_number + ", label %loop_else_" + label_number + "\n");
+        this.function.br(reg(exprType.returnRegister), "loop_then_" + label_number, "loop_else_" + label_number);
+        this.function.blankLine();
 
-        System.out.println("\tloop_then_" + label_number + ":");
+        this.function.label("loop_then_" + label_number);
         n.f4.accept(this, argu);
-        System.out.println("\tbr label %loop_again_" + label_number);
+        this.function.br("loop_again_" + label_number);
 
-        System.out.println("\tloop_else_" + label_number + ":");
+        this.function.label("loop_else_" + label_number);
 
         return null;
     }
@@ -968,13 +1020,13 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        if (!exprType.equals(new ObjectType("int"))) {
+        if (!exprType.equals(new ObjectType(DataType.INT))) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot convert " + exprType.getType() + " to int at print statement");
         }
 
-        System.out.println("\t;Print number");
+        this.function.text("\t;Print number");
 
-        System.out.println("\tcall void (i32) @print_int(i32 %_" + exprType.returnRegister + ")");
+        this.function.call("void (i32)", new Global("print_int", "void (i32)*"), reg(exprType.returnRegister));
 
         return null;
     }
@@ -992,32 +1044,36 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f1.beginLine;
         this.currentColumn = n.f1.beginColumn;
 
-        if (boolClauseLeft.equals("boolean")) {
-            ObjectType returnValue = new ObjectType("boolean");
-            System.out.println("\n\t;Short circuiting and\n");
+        if (boolClauseLeft.equals(DataType.BOOLEAN)) {
+            ObjectType returnValue = new ObjectType(DataType.BOOLEAN);
+            this.function.text("\n\t;Short circuiting and\n");
 
             int firstLabel = current.currentLabel++;
             int secondLabel = current.currentLabel++;
             int thirdLabel = current.currentLabel++;
             int fourthLabel = current.currentLabel++;
 
-            System.out.println("\tbr i1 %_" + boolClauseLeft.returnRegister + ", label %andclause_" + secondLabel + ", label %andclause_" + firstLabel + "\n");
+            this.function.br(reg(boolClauseLeft.returnRegister), "andclause_" + secondLabel, "andclause_" + firstLabel);
+            this.function.blankLine();
 
-            System.out.println("\tandclause_" + firstLabel + ":");
-            System.out.println("\tbr label %andclause_" + fourthLabel);
+            this.function.label("andclause_" + firstLabel);
+            this.function.br("andclause_" + fourthLabel);
 
-            System.out.println("\tandclause_" + secondLabel + ":");
+            this.function.label("andclause_" + secondLabel);
             ObjectType boolClauseRight = (ObjectType) n.f2.accept(this, argu);
-            if (!boolClauseRight.equals("boolean")) {
+            if (!boolClauseRight.equals(DataType.BOOLEAN)) {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid type on binary operator && (" + boolClauseLeft.getType() + " and " + boolClauseRight.getType() + ")");
             }
-            System.out.println("\tbr label %andclause_" + thirdLabel);
+            this.function.br("andclause_" + thirdLabel);
 
-            System.out.println("\n\tandclause_" + thirdLabel + ":");
-            System.out.println("\tbr label %andclause_" + fourthLabel + "\n");
-            System.out.println("\n\tandclause_" + fourthLabel + ":");
-            System.out.println("\t%_" + current.currentRegister + " = phi i1 [0, %andclause_" + firstLabel
-            + "], [%_" + boolClauseRight.returnRegister + ", %andclause_" + thirdLabel + "]");
+            this.function.blankLine();
+            this.function.label("andclause_" + thirdLabel);
+            this.function.br("andclause_" + fourthLabel);
+            this.function.blankLine();
+            this.function.blankLine();
+            this.function.label("andclause_" + fourthLabel);
+            this.function.phi(current.currentRegister, "i1", new Value[]{FunctionBuilder.constant("i1", 0), reg(boolClauseRight.returnRegister)},
+                    new String[]{"andclause_" + firstLabel, "andclause_" + thirdLabel});
 
             returnValue.returnRegister = current.currentRegister++;
             return returnValue;
@@ -1053,9 +1109,9 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f1.beginLine;
         this.currentColumn = n.f1.beginColumn;
 
-        if (exprType1.equals("int") && exprType2.equals("int")) {
-            ObjectType returnValue = new ObjectType("boolean");
-            System.out.println("\t%_" + current.currentRegister + " = icmp slt i32 %_" + exprType1.returnRegister + ", %_" + exprType2.returnRegister);
+        if (exprType1.equals(DataType.INT) && exprType2.equals(DataType.INT)) {
+            ObjectType returnValue = new ObjectType(DataType.BOOLEAN);
+            this.function.icmp(current.currentRegister, "slt", "i32", reg(exprType1.returnRegister), reg(exprType2.returnRegister));
             returnValue.returnRegister = current.currentRegister++;
             return returnValue;
         }
@@ -1079,9 +1135,9 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f1.beginLine;
         this.currentColumn = n.f1.beginColumn;
 
-        if (exprType1.equals("int") && exprType2.equals("int")) {
-            ObjectType returnValue = new ObjectType("int");
-            System.out.println("\t%_" + current.currentRegister + " = add i32 %_" + exprType1.returnRegister + ", %_" + exprType2.returnRegister);
+        if (exprType1.equals(DataType.INT) && exprType2.equals(DataType.INT)) {
+            ObjectType returnValue = new ObjectType(DataType.INT);
+            this.function.binary(current.currentRegister, Opcode.ADD, "i32", reg(exprType1.returnRegister), reg(exprType2.returnRegister));
             returnValue.returnRegister = current.currentRegister++;
             return returnValue;
         }
@@ -1105,9 +1161,9 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f1.beginLine;
         this.currentColumn = n.f1.beginColumn;
 
-        if (exprType1.equals("int") && exprType2.equals("int")) {
-            ObjectType returnValue = new ObjectType("int");
-            System.out.println("\t%_" + current.currentRegister + " = sub i32 %_" + exprType1.returnRegister + ", %_" + exprType2.returnRegister);
+        if (exprType1.equals(DataType.INT) && exprType2.equals(DataType.INT)) {
+            ObjectType returnValue = new ObjectType(DataType.INT);
+            this.function.binary(current.currentRegister, Opcode.SUB, "i32", reg(exprType1.returnRegister), reg(exprType2.returnRegister));
             returnValue.returnRegister = current.currentRegister++;
             return returnValue;
         }
@@ -1131,9 +1187,9 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f1.beginLine;
         this.currentColumn = n.f1.beginColumn;
 
-        if (exprType1.equals("int") && exprType2.equals("int")) {
-            ObjectType returnValue = new ObjectType("int");
-            System.out.println("\t%_" + current.currentRegister + " = mul i32 %_" + exprType1.returnRegister + ", %_" + exprType2.returnRegister);
+        if (exprType1.equals(DataType.INT) && exprType2.equals(DataType.INT)) {
+            ObjectType returnValue = new ObjectType(DataType.INT);
+            this.function.binary(current.currentRegister, Opcode.MUL, "i32", reg(exprType1.returnRegister), reg(exprType2.returnRegister));
             returnValue.returnRegister = current.currentRegister++;
             return returnValue;
         }
@@ -1160,40 +1216,37 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
 
         ObjectType returnValue;
         if (arrayType.isPrimitive) {
-            if (isArray(arrayType.primitiveType) && exprType.equals("int")) {
-                returnValue = new ObjectType(arrayType.primitiveType.substring(0, arrayType.primitiveType.length() - 2));
+            if (isArray(arrayType.type) && exprType.equals(DataType.INT)) {
+                returnValue = new ObjectType(arrayType.type.getElementType());
             }
-            else if (!isArray(arrayType.primitiveType)) {
+            else if (!isArray(arrayType.type)) {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid array lookup, "  + arrayType.getType() + " is not an array");
             }
             else {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid array lookup, cannot convert " + exprType.getType() + " to " + "int");
             }
 
-            System.out.println("\t;Get array pointer");
-            String arrayIRType = getIRType(arrayType.getType());
+            this.function.text("\t;Get array pointer");
+            String arrayIRType = arrayType.getType().getIRType();
             int arrayBaseRegister;
             if (arrayType.identifierOrigin != null) {
                 /*If our primary expression for array access is identifier*/
                 switch (arrayType.identifierOrigin) {
                     case OBJECT:
-                        Integer offset = current.currentClass.getValue().getFieldOffsets().get(new ClassField(arrayType.identifier, null));
-                        if (offset == null) {
-                            offset = 0;
-                        }
+                        int offset = fieldOffset(arrayType.identifier, current);
 
-                        System.out.println("\t%_" + current.currentRegister + " = getelementptr i8, i8* %this, i32 " + (offset + 8));
+                        this.function.getelementptr(current.currentRegister, "i8", this.function.register("this", "i8*"), FunctionBuilder.constant("i32", offset + 8));
                         current.currentRegister++;
-                        System.out.println("\t%_" + current.currentRegister + " =  bitcast i8* %_" + (current.currentRegister - 1) + " to " + arrayIRType + "*");
+                        this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), arrayIRType + "*");
                         current.currentRegister++;
                         break;
                     case LOCAL:
-                        System.out.println("\t%_" + current.currentRegister + " = getelementptr " + arrayIRType + ", " + arrayIRType + "* %" + arrayType.identifier + ", i32 0");
+                        this.function.getelementptr(current.currentRegister, arrayIRType, this.function.register(arrayType.identifier, arrayIRType + "*"), FunctionBuilder.constant("i32", 0));
                         current.currentRegister++;
                         break;
                 }
                 /*Load array base*/
-                System.out.println("\t%_" + current.currentRegister + " = load " + arrayIRType + ", " + arrayIRType + "* %_" + (current.currentRegister - 1));
+                this.function.load(current.currentRegister, arrayIRType, reg(current.currentRegister - 1));
                 arrayBaseRegister = current.currentRegister;
                 current.currentRegister++;
             }
@@ -1205,41 +1258,35 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
 
             /*Check if accessExpressionType is valid index*/
             String elementType = "i32";
-            if (arrayType.primitiveType.startsWith("boolean")) {
+            if (arrayType.type == DataType.BOOLEAN_ARRAY) {
                 /*If its a boolean array, it means that we need to also do a bitcast because elements are of type i8*/
                 elementType = "i8";
-                System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + arrayBaseRegister + " to i32*");
+                this.function.cast(current.currentRegister, Opcode.BITCAST, reg(arrayBaseRegister), "i32*");
                 current.currentRegister++;
-                System.out.println("\t%_" + current.currentRegister + " = getelementptr i32, i32* %_" + (current.currentRegister - 1) + ", i32 -1");
+                this.function.getelementptr(current.currentRegister, "i32", reg(current.currentRegister - 1), FunctionBuilder.constant("i32", -1));
             }
             else {
-                System.out.println("\t%_" + current.currentRegister + " = getelementptr i32, i32* %_" + arrayBaseRegister + ", i32 -1");
+                this.function.getelementptr(current.currentRegister, "i32", reg(arrayBaseRegister), FunctionBuilder.constant("i32", -1));
             }
 
             current.currentRegister++;
-            System.out.println("\t%_" + current.currentRegister + " = load i32, i32* %_" + (current.currentRegister - 1));
+            this.function.load(current.currentRegister, "i32", reg(current.currentRegister - 1));
             current.currentRegister++;
 
             /*Check if out of bounds*/
-            System.out.println("\t%_" + current.currentRegister + " = icmp ult i32 %_" + exprType.returnRegister + ", %_" + (current.currentRegister - 1));
+            this.function.icmp(current.currentRegister, "ult", "i32", reg(exprType.returnRegister), reg(current.currentRegister - 1));
             current.currentRegister++;
-            System.out.println("\tbr i1 %_" + (current.currentRegister - 1) + ", label %oob_ok" + current.currentLabel + ", label %oob_err" + current.currentLabel);
-            System.out.println();
-            System.out.println("\toob_err" + current.currentLabel + ":");
-            System.out.println("\tcall void @throw_oob()");
-            System.out.println("\tbr label %oob_ok" + current.currentLabel);
-            System.out.println();
-            System.out.println("\toob_ok" + current.currentLabel + ":");
+            checkBounds(reg(current.currentRegister - 1), current);
 
             /*OK, now access array*/
-            System.out.println("\t%_" + current.currentRegister + " = getelementptr " + elementType + ", " + arrayIRType + " %_" + arrayBaseRegister + ", i32 %_" + exprType.returnRegister);
+            this.function.getelementptr(current.currentRegister, elementType, reg(arrayBaseRegister), reg(exprType.returnRegister));
             current.currentRegister++;
 
-            System.out.println("\t%_" + current.currentRegister + " = load " + elementType + ", " + arrayIRType + " %_" + (current.currentRegister - 1));
+            this.function.load(current.currentRegister, elementType, reg(current.currentRegister - 1));
             if (elementType.equals("i8")) {
                 /*If our array is boolean array, convert the result to i1*/
                 current.currentRegister++;
-                System.out.println("\t%_" + current.currentRegister + " = trunc i8 %_" + (current.currentRegister - 1) + " to i1");
+                this.function.cast(current.currentRegister, Opcode.TRUNC, reg(current.currentRegister - 1), "i1");
             }
             returnValue.returnRegister = current.currentRegister++;
             current.currentLabel++;
@@ -1247,7 +1294,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
             return returnValue;
         }
         else {
-            throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid array lookup, " + arrayType.customType.getKey() + " is not an array");
+            throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid array lookup, " + arrayType.type + " is not an array");
         }
     }
 
@@ -1266,35 +1313,32 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
 
         ObjectType returnValue;
         if (arrayType.isPrimitive) {
-            if (isArray(arrayType.primitiveType)) {
-                 returnValue = new ObjectType("int");
+            if (isArray(arrayType.type)) {
+                 returnValue = new ObjectType(DataType.INT);
             } else {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid length operator on non-array object");
             }
 
-            System.out.println("\t;Get array pointer");
-            String arrayIRType = getIRType(arrayType.getType());
+            this.function.text("\t;Get array pointer");
+            String arrayIRType = arrayType.getType().getIRType();
             int arrayBaseRegister;
             if (arrayType.identifierOrigin != null) {
                 /*If our primary expression for array access is identifier*/
                 switch (arrayType.identifierOrigin) {
                     case OBJECT:
-                        Integer offset = current.currentClass.getValue().getFieldOffsets().get(new ClassField(arrayType.identifier, null));
-                        if (offset == null) {
-                            offset = 0;
-                        }
+                        int offset = fieldOffset(arrayType.identifier, current);
 
-                        System.out.println("\t%_" + current.currentRegister + " = getelementptr i8, i8* %this, i32 " + (offset + 8));
+                        this.function.getelementptr(current.currentRegister, "i8", this.function.register("this", "i8*"), FunctionBuilder.constant("i32", offset + 8));
                         current.currentRegister++;
-                        System.out.println("\t%_" + current.currentRegister + " =  bitcast i8* %_" + (current.currentRegister - 1) + " to " + arrayIRType + "*");
+                        this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), arrayIRType + "*");
                         current.currentRegister++;
                         break;
                     case LOCAL:
-                        System.out.println("\t%_" + current.currentRegister + " = getelementptr " + arrayIRType + ", " + arrayIRType + "* %" + arrayType.identifier + ", i32 0");
+                        this.function.getelementptr(current.currentRegister, arrayIRType, this.function.register(arrayType.identifier, arrayIRType + "*"), FunctionBuilder.constant("i32", 0));
                         current.currentRegister++;
                         break;
                 }
-                System.out.println("\t%_" + current.currentRegister + " = load " + arrayIRType + ", " + arrayIRType + "* %_" + (current.currentRegister - 1));
+                this.function.load(current.currentRegister, arrayIRType, reg(current.currentRegister - 1));
                 arrayBaseRegister = current.currentRegister;
                 current.currentRegister++;
             }
@@ -1303,22 +1347,22 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
                 arrayBaseRegister = arrayType.returnRegister;
             }
 
-            if (arrayType.primitiveType.startsWith("boolean")) {
+            if (arrayType.type == DataType.BOOLEAN_ARRAY) {
                 /*If its a boolean array, it means that we need to also do a bitcast because elements are of type i8*/
-                System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + arrayBaseRegister + " to i32*");
+                this.function.cast(current.currentRegister, Opcode.BITCAST, reg(arrayBaseRegister), "i32*");
                 arrayBaseRegister = current.currentRegister;
                 current.currentRegister++;
             }
 
-            System.out.println("\t%_" + current.currentRegister + " = getelementptr i32, i32* %_" + arrayBaseRegister + ", i32 -1");
+            this.function.getelementptr(current.currentRegister, "i32", reg(arrayBaseRegister), FunctionBuilder.constant("i32", -1));
             current.currentRegister++;
-            System.out.println("\t%_" + current.currentRegister + " = load i32, i32* %_" + (current.currentRegister - 1));
+            this.function.load(current.currentRegister, "i32", reg(current.currentRegister - 1));
             returnValue.returnRegister = current.currentRegister++;
 
             return returnValue;
         }
         else {
-            throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, " + arrayType.customType.getKey() + " is not an array");
+            throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, " + arrayType.type + " is not an array");
         }
     }
 
@@ -1334,7 +1378,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         Argument current = (Argument) argu;
         current.performCheck = true;
 
-        System.out.println("\n\t;Code snippet for MessageSend\n");
+        this.function.text("\n\t;Code snippet for MessageSend\n");
 
         current.produceCode = true;
         ObjectType object = (ObjectType) n.f0.accept(this, argu);
@@ -1346,39 +1390,45 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         current.performCheck = false;
         ObjectType method = (ObjectType) n.f2.accept(this, argu);
 
-        ClassMethodDeclaration classMethodDeclaration = containsMethod(method.identifier, object.getType(), classDefinitions);
+        MemberIndex.Method classMethod = this.memberIndex.getMethod(object.classId, method.identifier);
 
-        if (classMethodDeclaration == null) {
+        if (classMethod == null) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Cannot find symbol " + method.identifier);
         }
+        ClassMethodDeclaration classMethodDeclaration = classMethod.declaration;
 
         current.performCheck = true;
 
-        Integer methodOffset = this.classDefinitions.getDefinitions().get(new ClassIdentifier(object.getType())).getRealOffsets().get(method.identifier);
-        if (methodOffset == null) {
-            methodOffset = 0;
-        }
+        int methodOffset = classMethod.slot;
 
         /*Get types of parameters*/
-        String methodPrototype = getIRType(classMethodDeclaration.getReturnType()) + " (i8*";
+        String methodPrototype = classMethodDeclaration.getReturnType().getIRType() + " (i8*";
         for (MethodParameter methodParameter : classMethodDeclaration.getParameters().keySet()) {
-            methodPrototype += (", " + getIRType(methodParameter.getType()));
+            methodPrototype += (", " + methodParameter.getType().getIRType());
         }
         methodPrototype += ")*";
 
-        System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + object.returnRegister + " to i8***");
-        current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = load i8**, i8*** %_" + (current.currentRegister - 1));
-        current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = getelementptr i8*, i8** %_" + (current.currentRegister - 1) + ", i32 " + methodOffset);
-        current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = load i8*, i8** %_" + (current.currentRegister - 1));
-        current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + (current.currentRegister - 1) + " to " + methodPrototype);
-        int functionPointer = current.currentRegister++;
+        /*When only one method can be called it is called directly, which lets LLVM inline it (see Devirtualizer)*/
+        MemberIndex.Method target = this.optimize ? this.devirtualizer.getTarget(object.classId, method.identifier) : null;
+        Value function;
+        if (target != null) {
+            function = new Global(target.declaringClass + "." + target.declaration.getIdentifier(), methodPrototype);
+        }
+        else {
+            this.function.cast(current.currentRegister, Opcode.BITCAST, reg(object.returnRegister), "i8***");
+            current.currentRegister++;
+            this.function.load(current.currentRegister, "i8**", reg(current.currentRegister - 1));
+            current.currentRegister++;
+            this.function.getelementptr(current.currentRegister, "i8*", reg(current.currentRegister - 1), FunctionBuilder.constant("i32", methodOffset));
+            current.currentRegister++;
+            this.function.load(current.currentRegister, "i8*", reg(current.currentRegister - 1));
+            current.currentRegister++;
+            this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), methodPrototype);
+            function = reg(current.currentRegister++);
+        }
 
 
-        System.out.println("\n\t;Make the call");
+        this.function.text("\n\t;Make the call");
 
         /*We can have nested message sends.
           This means that is we call this function recursively it will set different parameters every time
@@ -1396,28 +1446,30 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
             current.currentIterator = classMethodDeclaration.getParameters().entrySet().iterator();
             current.currentParameters = classMethodDeclaration.getParameters();
 
-            String expressionList = (String) n.f4.accept(this, argu);
+            List<Value> arguments = new ArrayList<Value>();
+            arguments.add(reg(object.returnRegister));
+            arguments.addAll(expressionList((ExpressionList) n.f4.node, argu));
 
             current.currentParameters = null;
             current.currentIterator = null;
 
-            System.out.println("\t%_" + current.currentRegister + " = call " + getIRType(classMethodDeclaration.getReturnType()) + " %_" + functionPointer + "(i8* %_" + object.returnRegister + expressionList + ")");
+            this.function.call(current.currentRegister, classMethodDeclaration.getReturnType().getIRType(), function, arguments.toArray(new Value[0]));
         }
         else {
             if (classMethodDeclaration.getParameters().size() != 0) {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid method call, the number of arguments given (" + 0 + ") is less than expected (" + classMethodDeclaration.getParameters().size() + ")");
             }
-            System.out.println("\t%_" + current.currentRegister + " = call " + getIRType(classMethodDeclaration.getReturnType()) + " %_" + functionPointer + "(i8* %_" + object.returnRegister + ")");
+            this.function.call(current.currentRegister, classMethodDeclaration.getReturnType().getIRType(), function, reg(object.returnRegister));
         }
         int returnRegister = current.currentRegister++;
 
-        String returnType =  classMethodDeclaration.getReturnType();
-        if (isCustomType(returnType)) {
+        DataType returnType =  classMethodDeclaration.getReturnType();
+        if (returnType.isClass()) {
             current.currentParameters = tempParameters;
             current.currentIterator = tempIterator;
             current.currentParameter = tempCurrentParameter;
 
-            ObjectType returnObject = ObjectType.createCustomObject(null, returnType , classDefinitions, null);
+            ObjectType returnObject = ObjectType.createCustomObject(null, returnType , classHierarchy, null);
             returnObject.returnRegister = returnRegister;
             return returnObject;
         }
@@ -1425,7 +1477,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         ObjectType returnObject = new ObjectType();
 
         returnObject.isPrimitive = true;
-        returnObject.primitiveType = returnType;
+        returnObject.type = returnType;
         returnObject.returnRegister = returnRegister;
 
         current.currentParameters = tempParameters;
@@ -1436,10 +1488,12 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
     }
 
     /**
+     * The arguments of a MessageSend, collected here rather than returned by visit, whose result is not a list.
      * f0 -> Expression()
      * f1 -> ExpressionTail()
+     * f1.f0 -> ( ExpressionTerm() )*
      */
-    public Object visit(ExpressionList n, Object argu) {
+    private List<Value> expressionList(ExpressionList n, Object argu) {
         Argument current = (Argument) argu;
         current.produceCode = true;
         ObjectType exprType = (ObjectType) n.f0.accept(this, argu);
@@ -1452,27 +1506,17 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         }
         current.currentParameter++;
 
-        String expression = ", " + getIRType(exprType.getType()) + " %_" + exprType.returnRegister;
-
-        String expressionTail = (String) n.f1.accept(this, argu);
+        List<Value> expressions = new ArrayList<Value>(n.f1.f0.size() + 1);
+        expressions.add(reg(exprType.returnRegister));
+        for (int i = 0 ; i < n.f1.f0.size() ; i++) {
+            expressions.add((Value) n.f1.f0.elementAt(i).accept(this, argu));
+        }
 
         if (current.currentParameter != current.currentParameters.size()) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") Invalid method call, the number of arguments given (" + current.currentParameter + ") is less than expected (" + current.currentParameters.size() + ")");
         }
 
-        return expressionTail.isEmpty() ? expression : expression + expressionTail;
-    }
-
-    /**
-     * f0 -> ( ExpressionTerm() )*
-     */
-    public Object visit(ExpressionTail n, Object argu) {
-        StringBuilder expressionTail = new StringBuilder();
-        for (int i = 0 ; i < n.f0.size() ; i++) {
-            expressionTail.append((String) n.f0.elementAt(i).accept(this, argu));
-        }
-
-        return expressionTail.toString();
+        return expressions;
     }
 
     /**
@@ -1494,7 +1538,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
             current.currentParameter++;
         }
 
-        return ", " + getIRType(exprType.getType()) + " %_" + exprType.returnRegister;
+        return reg(exprType.returnRegister);
     }
 
 
@@ -1514,10 +1558,10 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
 
         Argument current = (Argument) argu;
 
-        ObjectType returnValue = new ObjectType("int");
+        ObjectType returnValue = new ObjectType(DataType.INT);
         returnValue.identifier = n.f0.toString();
 
-        System.out.println("\t%_" + current.currentRegister + " = add i32 " + returnValue.identifier + ", 0");
+        this.function.binary(current.currentRegister, Opcode.ADD, "i32", FunctionBuilder.constant("i32", Integer.parseInt(returnValue.identifier)), FunctionBuilder.constant("i32", 0));
         returnValue.returnRegister = current.currentRegister++;
 
         return returnValue;
@@ -1532,10 +1576,10 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
 
         Argument current = (Argument) argu;
 
-        ObjectType returnValue = new ObjectType("boolean");
+        ObjectType returnValue = new ObjectType(DataType.BOOLEAN);
         returnValue.identifier = "1";
 
-        System.out.println("\t%_" + current.currentRegister + " = add i1 1, 0");
+        this.function.binary(current.currentRegister, Opcode.ADD, "i1", FunctionBuilder.constant("i1", 1), FunctionBuilder.constant("i1", 0));
         returnValue.returnRegister = current.currentRegister++;
 
         return returnValue;
@@ -1550,10 +1594,10 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
 
         Argument current = (Argument) argu;
 
-        ObjectType returnValue = new ObjectType("boolean");
+        ObjectType returnValue = new ObjectType(DataType.BOOLEAN);
         returnValue.identifier = "1";
 
-        System.out.println("\t%_" + current.currentRegister + " = add i1 0, 0");
+        this.function.binary(current.currentRegister, Opcode.ADD, "i1", FunctionBuilder.constant("i1", 0), FunctionBuilder.constant("i1", 0));
         returnValue.returnRegister = current.currentRegister++;
 
         return returnValue;
@@ -1567,7 +1611,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
     public Object visit(BooleanArrayType n, Object argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return new ObjectType("boolean[]");
+        return new ObjectType(DataType.BOOLEAN_ARRAY);
     }
 
     /**
@@ -1578,7 +1622,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
     public Object visit(IntegerArrayType n, Object argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return new ObjectType("int[]");
+        return new ObjectType(DataType.INT_ARRAY);
     }
 
     /**
@@ -1587,7 +1631,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
     public Object visit(BooleanType n, Object argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return new ObjectType("boolean");
+        return new ObjectType(DataType.BOOLEAN);
     }
     /**
      * f0 -> "int"
@@ -1595,7 +1639,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
     public Object visit(IntegerType n, Object argu) {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
-        return new ObjectType("int");
+        return new ObjectType(DataType.INT);
     }
 
 
@@ -1608,8 +1652,8 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        ObjectType returnObject = ObjectType.createCustomObject("this", current.currentClass.getKey().getClassName(), classDefinitions, IdentifierOrigin.LOCAL);
-        System.out.println("\t%_" + current.currentRegister + " = load i8*, i8** %.this");
+        ObjectType returnObject = ObjectType.createCustomObject("this", this.types.get(current.currentClass.getKey().getClassName()), classHierarchy, IdentifierOrigin.LOCAL);
+        this.function.load(current.currentRegister, "i8*", this.function.register(".this", "i8**"));
         returnObject.returnRegister = current.currentRegister++;
 
         return returnObject;
@@ -1631,39 +1675,33 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        if (!exprType.equals("int")) {
+        if (!exprType.equals(DataType.INT)) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot convert " + exprType.getType() + " to int for array allocation");
         }
 
-        System.out.println("\n\t;Code snippet for array allocation\n");
+        this.function.text("\n\t;Code snippet for array allocation\n");
 
-        ObjectType returnValue = new ObjectType("boolean[]");
+        ObjectType returnValue = new ObjectType(DataType.BOOLEAN_ARRAY);
         int sizeRegister = exprType.returnRegister;
         int arrayBaseRegister;
 
-        System.out.println("\t;Since its a boolean array, we need to add 4 instead of 1 in size");
-        System.out.println("\t%_" + current.currentRegister + " = add i32 %_" + sizeRegister + ", 4");
+        this.function.text("\t;Since its a boolean array, we need to add 4 instead of 1 in size");
+        this.function.binary(current.currentRegister, Opcode.ADD, "i32", reg(sizeRegister), FunctionBuilder.constant("i32", 4));
         sizeRegister = current.currentRegister;
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = icmp sge i32 %_" + (current.currentRegister - 1) + ", 4");
+        this.function.icmp(current.currentRegister, "sge", "i32", reg(current.currentRegister - 1), FunctionBuilder.constant("i32", 4));
         current.currentRegister++;
-        System.out.println("\tbr i1 %_" + (current.currentRegister - 1) + ", label %oob_ok" + current.currentLabel + ", label %oob_err" + current.currentLabel);
-        System.out.println();
-        System.out.println("\toob_err" + current.currentLabel + ":");
-        System.out.println("\tcall void @throw_oob()");
-        System.out.println("\tbr label %oob_ok" + current.currentLabel);
-        System.out.println();
-        System.out.println("\toob_ok" + current.currentLabel + ":");
-        System.out.println("\n\t;Allocate elements on heap\n");
-        System.out.println("\t%_" + current.currentRegister + " = call i8* @calloc(i32 %_" + sizeRegister + ", i32 1)");
+        checkBounds(reg(current.currentRegister - 1), current);
+        this.function.text("\n\t;Allocate elements on heap\n");
+        this.function.call(current.currentRegister, "i8*", new Global("calloc", "i8* (i32, i32)*"), reg(sizeRegister), FunctionBuilder.constant("i32", 1));
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + (current.currentRegister - 1) + " to i32*");
+        this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), "i32*");
         arrayBaseRegister = current.currentRegister;
         current.currentRegister++;
-        System.out.println("\tstore i32 %_" + (sizeRegister - 1) + ", i32* %_" + (current.currentRegister - 1));
-        System.out.println("\t%_" + current.currentRegister + " = bitcast i32* %_" + arrayBaseRegister + " to i8*");
+        this.function.store("i32", reg(sizeRegister - 1), reg(current.currentRegister - 1));
+        this.function.cast(current.currentRegister, Opcode.BITCAST, reg(arrayBaseRegister), "i8*");
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = getelementptr i8, i8* %_" + (current.currentRegister - 1) + ", i32 4");
+        this.function.getelementptr(current.currentRegister, "i8", reg(current.currentRegister - 1), FunctionBuilder.constant("i32", 4));
         current.currentLabel++;
 
         returnValue.returnRegister = current.currentRegister++;
@@ -1687,35 +1725,29 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentLine = n.f0.beginLine;
         this.currentColumn = n.f0.beginColumn;
 
-        if (!exprType.equals("int")) {
+        if (!exprType.equals(DataType.INT)) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot convert " + exprType.getType() + " to int for array allocation");
         }
 
-        System.out.println("\n\t;Code snippet for array allocation\n");
+        this.function.text("\n\t;Code snippet for array allocation\n");
 
-        ObjectType returnValue = new ObjectType("int[]");
+        ObjectType returnValue = new ObjectType(DataType.INT_ARRAY);
         int sizeRegister = exprType.returnRegister;
 
-        System.out.println("\t%_" + current.currentRegister + " = add i32 %_" + sizeRegister + ", 1");
+        this.function.binary(current.currentRegister, Opcode.ADD, "i32", reg(sizeRegister), FunctionBuilder.constant("i32", 1));
         sizeRegister = current.currentRegister;
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = icmp sge i32 %_" + (current.currentRegister - 1) + ", 1");
+        this.function.icmp(current.currentRegister, "sge", "i32", reg(current.currentRegister - 1), FunctionBuilder.constant("i32", 1));
         current.currentRegister++;
-        System.out.println("\tbr i1 %_" + (current.currentRegister - 1) + ", label %oob_ok" + current.currentLabel + ", label %oob_err" + current.currentLabel);
-        System.out.println();
-        System.out.println("\toob_err" + current.currentLabel + ":");
-        System.out.println("\tcall void @throw_oob()");
-        System.out.println("\tbr label %oob_ok" + current.currentLabel);
-        System.out.println();
-        System.out.println("\toob_ok" + current.currentLabel + ":");
-        System.out.println("\n\t;Allocate elements on heap\n");
-        System.out.println("\t%_" + current.currentRegister + " = call i8* @calloc(i32 %_" + sizeRegister + ", i32 4)");
+        checkBounds(reg(current.currentRegister - 1), current);
+        this.function.text("\n\t;Allocate elements on heap\n");
+        this.function.call(current.currentRegister, "i8*", new Global("calloc", "i8* (i32, i32)*"), reg(sizeRegister), FunctionBuilder.constant("i32", 4));
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + (current.currentRegister - 1) + " to i32*");
+        this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), "i32*");
         current.currentRegister++;
-        System.out.println("\tstore i32 %_" + (sizeRegister - 1) + ", i32* %_" + (current.currentRegister - 1));
+        this.function.store("i32", reg(sizeRegister - 1), reg(current.currentRegister - 1));
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = getelementptr i32, i32* %_" + (current.currentRegister - 2) + ", i32 1");
+        this.function.getelementptr(current.currentRegister, "i32", reg(current.currentRegister - 2), FunctionBuilder.constant("i32", 1));
         current.currentLabel++;
 
         returnValue.returnRegister = current.currentRegister++;
@@ -1736,21 +1768,21 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         ObjectType ide = (ObjectType) n.f1.accept(this, argu);
         current.currentMethod = tmp;
 
-        ObjectType returnObject = ObjectType.createCustomObject(null, ide.identifier , classDefinitions, null);
+        ObjectType returnObject = ObjectType.createCustomObject(null, this.types.get(ide.identifier), classHierarchy, null);
 
-        System.out.println("\n\t;New object instance allocation\n");
+        this.function.text("\n\t;New object instance allocation\n");
 
-        ClassBody classBody = this.classDefinitions.getDefinitions().get(new ClassIdentifier(ide.identifier));
+        ClassLayout classLayout = this.memberIndex.getLayout(returnObject.classId);
 
-        int objectSize = computeObjectSize(classBody);
-        int methods = classBody.getRealOffsets().size();
+        int objectSize = classLayout.size;
+        int methods = classLayout.vtable.length;
 
-        System.out.println("\t%_" + current.currentRegister + " = call i8* @calloc(i32 1, i32 " + objectSize + ")");
+        this.function.call(current.currentRegister, "i8*", new Global("calloc", "i8* (i32, i32)*"), FunctionBuilder.constant("i32", 1), FunctionBuilder.constant("i32", objectSize));
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + (current.currentRegister - 1) + " to i8***");
+        this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), "i8***");
         current.currentRegister++;
-        System.out.println("\t%_" + current.currentRegister + " = getelementptr [" + methods + " x i8*], [" + methods + " x i8*]* @." + ide.identifier + "_vtable, i32 0, i32 0");
-        System.out.println("\tstore i8** %_" + current.currentRegister + ", i8*** %_" + (current.currentRegister - 1));
+        this.function.getelementptr(current.currentRegister, "[" + methods + " x i8*]", vtableGlobal(ide.identifier, methods), FunctionBuilder.constant("i32", 0), FunctionBuilder.constant("i32", 0));
+        this.function.store("i8**", reg(current.currentRegister), reg(current.currentRegister - 1));
         current.currentRegister++;
 
         returnObject.returnRegister = (current.currentRegister - 3);
@@ -1770,8 +1802,8 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
         this.currentColumn = n.f0.beginColumn;
 
         Argument current = (Argument) argu;
-        if (clause.equals("boolean")) {
-            System.out.println("\t%_" + current.currentRegister + " = xor i1 %_" + clause.returnRegister + ", 1");
+        if (clause.equals(DataType.BOOLEAN)) {
+            this.function.binary(current.currentRegister, Opcode.XOR, "i1", reg(clause.returnRegister), FunctionBuilder.constant("i1", 1));
             clause.returnRegister = current.currentRegister++;
             return clause;
         }
@@ -1807,7 +1839,7 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
             if (!classDefinitions.getDefinitions().containsKey(new ClassIdentifier(objectType.identifier))) {
                 throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot find symbol " + objectType.identifier + " (line " + n.f0.beginLine + ", column " + n.f0.beginColumn + ")");
             } else {
-                objectType.customType = new SimpleEntry<>(objectType.identifier, null);
+                objectType.type = this.types.get(objectType.identifier);
                 return objectType;
             }
         }
@@ -1816,70 +1848,51 @@ public class IntermidiateRepresentation extends GJDepthFirst<Object, Object> {
           Therefore, we should return its type to the caller, after verifying this variable was declared before.*/
 
         /*Check method fields first (shadowing)*/
-        if (current.currentMethod.getValue() == null) {
+        if (current.currentScope == null) {
             throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot find symbol " + objectType.identifier);
         }
-        String type;
+        DataType type;
         IdentifierOrigin identifierOrigin;
-        MethodField methodField = current.currentMethod.getValue().getFields().get(new MethodField(objectType.identifier, null));
-        if (methodField != null) {
-            type = methodField.getType();
+        MethodScope.Slot slot = current.currentScope.get(objectType.identifier);
+        if (slot != null) {
+            type = slot.type;
             identifierOrigin = IdentifierOrigin.LOCAL;
-        } else {
-            /*Check parameters of the method*/
-            MethodParameter methodParameter = current.currentMethod.getKey().getParameters().get(new MethodParameter(objectType.identifier, null));
-            if (methodParameter != null) {
-                type = methodParameter.getType();
-                identifierOrigin = IdentifierOrigin.LOCAL;
-            }
-            /*Finally, check if current class or its super class contains this variable*/
-            else {
-                if (current.currentClass.getKey().getExtendsClassName() != null) {
-                    type = checkCurrentClass(objectType.identifier, current);
-                    if (type == null) {
-                        type = checkParents(objectType.identifier, current.currentClass.getKey().getExtendsClassName(), classDefinitions);
-                        if (type == null) {
-                            throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot find symbol " + objectType.identifier);
-                        }
-                    }
-                } else {
-                    type = checkCurrentClass(objectType.identifier, current);
-                    if (type == null) {
-                        throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot find symbol " + objectType.identifier);
-                    }
-                }
-                identifierOrigin = IdentifierOrigin.OBJECT;
+        }
+        /*Finally, check if current class or its super class contains this variable*/
+        else {
+            MemberIndex.Field classField = this.memberIndex.getField(current.currentClassId, objectType.identifier);
+            if (classField == null) {
+                throw new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") TypeError, cannot find symbol " + objectType.identifier);
             }
+            type = classField.type;
+            identifierOrigin = IdentifierOrigin.OBJECT;
         }
 
         ObjectType returnObject;
-        if (isCustomType(type)) {
-            returnObject = ObjectType.createCustomObject(objectType.identifier, type , classDefinitions, identifierOrigin);
+        if (type.isClass()) {
+            returnObject = ObjectType.createCustomObject(objectType.identifier, type , classHierarchy, identifierOrigin);
         }
         else {
             objectType.isPrimitive = true;
-            objectType.primitiveType = type;
+            objectType.type = type;
             objectType.identifierOrigin = identifierOrigin;
             returnObject = objectType;
         }
 
         if (current.produceCode) {
-            String IRType = getIRType(returnObject.getType());
+            String IRType = returnObject.getType().getIRType();
             switch(returnObject.identifierOrigin) {
                 case LOCAL:
-                    System.out.println("\t%_" + current.currentRegister + " = load " + IRType + ", " + IRType + "* %" + objectType.identifier);
+                    this.function.load(current.currentRegister, slot.irType, this.function.register(slot.identifier, slot.irType + "*"));
                     break;
                 case OBJECT:
-                    Integer offset = current.currentClass.getValue().getFieldOffsets().get(new ClassField(objectType.identifier, null));
-                    if (offset == null) {
-                        offset = 0;
-                    }
+                    int offset = fieldOffset(objectType.identifier, current);
 
-                    System.out.println("\t%_" + current.currentRegister + " = getelementptr i8, i8* %this, i32 " + (offset + 8));
+                    this.function.getelementptr(current.currentRegister, "i8", this.function.register("this", "i8*"), FunctionBuilder.constant("i32", offset + 8));
                     current.currentRegister++;
-                    System.out.println("\t%_" + current.currentRegister + " = bitcast i8* %_" + (current.currentRegister - 1) + " to " + IRType + "*");
+                    this.function.cast(current.currentRegister, Opcode.BITCAST, reg(current.currentRegister - 1), IRType + "*");
                     current.currentRegister++;
-                    System.out.println("\t%_" + current.currentRegister + " = load " + IRType + ", " + IRType + "* %_" + (current.currentRegister - 1));
+                    this.function.load(current.currentRegister, IRType, reg(current.currentRegister - 1));
                     break;
             }
             returnObject.returnRegister = current.currentRegister++;
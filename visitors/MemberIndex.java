@@ -0,0 +1,79 @@
+package visitors;
+
+import types.ClassBody;
+import types.ClassIdentifier;
+import types.ClassMethodDeclaration;
+import types.DataType;
+
+/**
+ * Every field and method that is visible in a class, its own and the inherited ones, by name.
+ * Built once per compilation after ClassDefinitions, going through the classes in the order of the ClassHierarchy
+ * so that the ClassLayout of a superclass is always ready before those of its subclasses.
+ * A field of a subclass hides the field of a superclass with the same name, and a method of a subclass overrides
+ * the method of a superclass with the same name, keeping its slot in the vtable.
+ */
+public class MemberIndex {
+
+    public static class Field {
+        public final String identifier;
+        public final DataType type;
+        public final String declaringClass;
+        /*Offset from the start of the fields, the vtable pointer is not counted (see ClassLayout)*/
+        public final int offset;
+
+        Field(String identifier, DataType type, String declaringClass, int offset) {
+            this.identifier = identifier;
+            this.type = type;
+            this.declaringClass = declaringClass;
+            this.offset = offset;
+        }
+    }
+
+    public static class Method {
+        public final ClassMethodDeclaration declaration;
+        public final String declaringClass;
+        public final int slot;
+
+        Method(ClassMethodDeclaration declaration, String declaringClass, int slot) {
+            this.declaration = declaration;
+            this.declaringClass = declaringClass;
+            this.slot = slot;
+        }
+    }
+
+    private final ClassLayout[] layouts;
+
+    public MemberIndex(ClassDefinitions classDefinitions, ClassHierarchy classHierarchy) {
+        this.layouts = new ClassLayout[classHierarchy.size()];
+        /*The main class is always the first one defined*/
+        String mainClassName = classDefinitions.getDefinitions().isEmpty() ? null : classDefinitions.getDefinitions().keySet().iterator().next().getClassName();
+
+        for (int id = 0 ; id < this.layouts.length ; id++) {
+            String className = classHierarchy.getName(id);
+            ClassBody classBody = classDefinitions.getDefinitions().get(new ClassIdentifier(className));
+            int parent = classHierarchy.getParent(id);
+
+            this.layouts[id] = new ClassLayout(className, classBody, parent == ClassHierarchy.NONE ? null : this.layouts[parent], className.equals(mainClassName));
+        }
+    }
+
+    public ClassLayout getLayout(int classId) {
+        return this.layouts[classId];
+    }
+
+    /*null if the class has no such field*/
+    public Field getField(int classId, String identifier) {
+        if (classId == ClassHierarchy.NONE) {
+            return null;
+        }
+        return this.layouts[classId].getField(identifier);
+    }
+
+    /*null if the class has no such method*/
+    public Method getMethod(int classId, String identifier) {
+        if (classId == ClassHierarchy.NONE) {
+            return null;
+        }
+        return this.layouts[classId].getMethod(identifier);
+    }
+}
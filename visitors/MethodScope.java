@@ -0,0 +1,69 @@
+package visitors;
+
+import types.ClassMethodBody;
+import types.ClassMethodDeclaration;
+import types.MethodField;
+import types.MethodParameter;
+import types.DataType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The parameters and local variables of the method being visited, built once when the visitor enters the method.
+ * Every variable gets a slot with its type and its IR type, its stack slot is the register named after it, so resolving a variable is
+ * a single lookup by name instead of building a MethodField and then a MethodParameter key for every reference.
+ * A local variable hides a parameter with the same name, as it did when locals were checked first.
+ */
+public class MethodScope {
+
+    public static class Slot {
+        public final int index;
+        public final String identifier;
+        public final DataType type;
+        public final String irType;
+        public final boolean isParameter;
+
+        Slot(int index, String identifier, DataType type, boolean isParameter) {
+            this.index = index;
+            this.identifier = identifier;
+            this.type = type;
+            this.irType = type.getIRType();
+            this.isParameter = isParameter;
+        }
+    }
+
+    private final Slot[] slots;
+    private final Map<String, Slot> slotsByName;
+
+    public MethodScope(ClassMethodDeclaration classMethodDeclaration, ClassMethodBody classMethodBody) {
+        this.slots = new Slot[classMethodDeclaration.getParameters().size() + classMethodBody.getFields().size()];
+        this.slotsByName = new HashMap<String, Slot>(this.slots.length * 2);
+
+        int index = 0;
+        for (MethodParameter methodParameter : classMethodDeclaration.getParameters().keySet()) {
+            add(new Slot(index++, methodParameter.getIdentifier(), methodParameter.getType(), true));
+        }
+        for (MethodField methodField : classMethodBody.getFields().keySet()) {
+            add(new Slot(index++, methodField.getIdentifier(), methodField.getType(), false));
+        }
+    }
+
+    private void add(Slot slot) {
+        this.slots[slot.index] = slot;
+        this.slotsByName.put(slot.identifier, slot);
+    }
+
+    /*null if the identifier is not a parameter or a local variable of the method*/
+    public Slot get(String identifier) {
+        return this.slotsByName.get(identifier);
+    }
+
+    public Slot get(int index) {
+        return this.slots[index];
+    }
+
+    public int size() {
+        return this.slots.length;
+    }
+}
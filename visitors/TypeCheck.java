@@ -0,0 +1,737 @@
+package visitors;
+
+import syntaxtree.*;
+import visitor.GJDepthFirst;
+import types.*;
+
+import java.util.Iterator;
+
+/**
+ * Type checks a program without generating any code (--check-only).
+ * It finds the same errors as IntermidiateRepresentation, with the same messages and positions, and stops at the first one,
+ * but an expression only gives back its DataType, so nothing is built for registers, labels or instructions.
+ * Positions follow the tokens in the same order as the code generator, where every method starts at its "public" token.
+ */
+public class TypeCheck extends GJDepthFirst<DataType, Object> {
+
+    private final ClassDefinitions classDefinitions;
+    private final ClassHierarchy classHierarchy;
+    private final MemberIndex memberIndex;
+    private final TypeTable types;
+    private int currentLine;
+    private int currentColumn;
+
+    private String currentClassName;
+    private ClassBody currentClass;
+    private int currentClassId;
+    /*null outside the statements of a method*/
+    private MethodScope currentScope;
+
+    public TypeCheck(ClassDefinitions classDefinitions) {
+        this.classDefinitions = classDefinitions;
+        this.classHierarchy = new ClassHierarchy(classDefinitions);
+        this.memberIndex = new MemberIndex(classDefinitions, this.classHierarchy);
+        this.types = classDefinitions.getTypes();
+        this.currentLine = 1;
+        this.currentColumn = 1;
+        this.currentClassId = ClassHierarchy.NONE;
+    }
+
+    private void position(NodeToken token) {
+        this.currentLine = token.beginLine;
+        this.currentColumn = token.beginColumn;
+    }
+
+    private RuntimeException error(String message) {
+        return new RuntimeException("(line " + this.currentLine + ", column " + this.currentColumn + ") " + message);
+    }
+
+    /*Whether a value of type 'from' can be used where 'to' is expected, an object can be used where any of its superclasses is*/
+    private boolean isAssignable(DataType to, DataType from) {
+        if (to.isClass() && from.isClass()) {
+            int toId = this.classHierarchy.getId(to.getName());
+            int fromId = this.classHierarchy.getId(from.getName());
+            if (toId == ClassHierarchy.NONE || fromId == ClassHierarchy.NONE) {
+                return from == to;
+            }
+            return this.classHierarchy.isDerivedOf(fromId, toId);
+        }
+        return from == to;
+    }
+
+    private boolean isArray(DataType type) {
+        return type != null && type.isArray();
+    }
+
+    /*The type of a class named in a declaration or an allocation, which must exist*/
+    private DataType classType(NodeToken identifier) {
+        position(identifier);
+        String className = identifier.toString();
+        if (this.classHierarchy.getId(className) == ClassHierarchy.NONE) {
+            throw error("TypeError, cannot find symbol " + className + " (line " + identifier.beginLine + ", column " + identifier.beginColumn + ")");
+        }
+        return this.types.get(className);
+    }
+
+    private void enterClass(ClassIdentifier classIdentifier) {
+        ClassBody classBody = this.classDefinitions.getDefinitions().get(classIdentifier);
+        if (classBody == null) {
+            throw new RuntimeException("This was not supposed to happen");
+        }
+        this.currentClassName = classIdentifier.getClassName();
+        this.currentClass = classBody;
+        this.currentClassId = this.classHierarchy.getId(classIdentifier.getClassName());
+        this.currentScope = null;
+    }
+
+    /*Same lookup as IntermidiateRepresentation.enterMethod*/
+    private void enterMethod(String identifier, DataType returnType) {
+        MemberIndex.Method method = this.memberIndex.getMethod(this.currentClassId, identifier);
+        ClassMethodDeclaration classMethodDeclaration = method == null ? new ClassMethodDeclaration(identifier, returnType) : method.declaration;
+        ClassMethodBody classMethodBody = this.currentClass.getMethods().get(classMethodDeclaration);
+
+        this.currentScope = classMethodBody == null ? null : new MethodScope(classMethodDeclaration, classMethodBody);
+    }
+
+    /**
+     * f0 -> MainClass()
+     * f1 -> ( TypeDeclaration() )*
+     * f2 -> <EOF>
+     */
+    public DataType visit(Goal n, Object argu) {
+        n.f0.accept(this, argu);
+
+        for (int i = 0 ; i < n.f1.size() ; i++) {
+            n.f1.elementAt(i).accept(this, argu);
+        }
+
+        return null;
+    }
+
+    /**
+     * f0 -> "class"
+     * f1 -> Identifier()
+     * f2 -> "{"
+     * f3 -> "public"
+     * f4 -> "static"
+     * f5 -> "void"
+     * f6 -> "main"
+     * f7 -> "("
+     * f8 -> "String"
+     * f9 -> "["
+     * f10 -> "]"
+     * f11 -> Identifier()
+     * f12 -> ")"
+     * f13 -> "{"
+     * f14 -> ( VarDeclaration() )*
+     * f15 -> ( Statement() )*
+     * f16 -> "}"
+     * f17 -> "}"
+     */
+    public DataType visit(MainClass n, Object argu) {
+        position(n.f1.f0);
+        enterClass(new ClassIdentifier(n.f1.f0.toString()));
+
+        for (int i = 0 ; i < n.f14.size() ; i++) {
+            n.f14.elementAt(i).accept(this, argu);
+        }
+
+        enterMethod("main", DataType.VOID);
+
+        for (int i = 0 ; i < n.f15.size() ; i++) {
+            n.f15.elementAt(i).accept(this, argu);
+        }
+
+        return null;
+    }
+
+    /**
+     * f0 -> "class"
+     * f1 -> Identifier()
+     * f2 -> "{"
+     * f3 -> ( VarDeclaration() )*
+     * f4 -> ( MethodDeclaration() )*
+     * f5 -> "}"
+     */
+    public DataType visit(ClassDeclaration n, Object argu) {
+        position(n.f1.f0);
+        enterClass(new ClassIdentifier(n.f1.f0.toString()));
+
+        for (int i = 0 ; i < n.f3.size() ; i++) {
+            n.f3.elementAt(i).accept(this, argu);
+        }
+
+        for (int i = 0 ; i < n.f4.size() ; i++) {
+            n.f4.elementAt(i).accept(this, argu);
+        }
+
+        return null;
+    }
+
+    /**
+     * f0 -> "class"
+     * f1 -> Identifier()
+     * f2 -> "extends"
+     * f3 -> Identifier()
+     * f4 -> "{"
+     * f5 -> ( VarDeclaration() )*
+     * f6 -> ( MethodDeclaration() )*
+     * f7 -> "}"
+     */
+    public DataType visit(ClassExtendsDeclaration n, Object argu) {
+        position(n.f1.f0);
+        position(n.f3.f0);
+        enterClass(new ClassIdentifier(n.f1.f0.toString(), n.f3.f0.toString()));
+
+        for (int i = 0 ; i < n.f5.size() ; i++) {
+            n.f5.elementAt(i).accept(this, argu);
+        }
+
+        for (int i = 0 ; i < n.f6.size() ; i++) {
+            n.f6.elementAt(i).accept(this, argu);
+        }
+
+        return null;
+    }
+
+    /**
+     * f0 -> "public"
+     * f1 -> Type()
+     * f2 -> Identifier()
+     * f3 -> "("
+     * f4 -> ( FormalParameterList() )?
+     * f5 -> ")"
+     * f6 -> "{"
+     * f7 -> ( VarDeclaration() )*
+     * f8 -> ( Statement() )*
+     * f9 -> "return"
+     * f10 -> Expression()
+     * f11 -> ";"
+     * f12 -> "}"
+     */
+    public DataType visit(MethodDeclaration n, Object argu) {
+        /*Methods are generated on their own, so the position after a method is the one before it*/
+        int line = this.currentLine;
+        int column = this.currentColumn;
+        position(n.f0);
+        this.currentScope = null;
+
+        DataType returnType = n.f1.accept(this, argu);
+        position(n.f2.f0);
+
+        n.f4.accept(this, argu);
+        for (int i = 0 ; i < n.f7.size() ; i++) {
+            n.f7.elementAt(i).accept(this, argu);
+        }
+
+        enterMethod(n.f2.f0.toString(), null);
+
+        for (int i = 0 ; i < n.f8.size() ; i++) {
+            n.f8.elementAt(i).accept(this, argu);
+        }
+
+        DataType expressionReturnType = n.f10.accept(this, argu);
+
+        /*A class is only returned as itself, as the code generator does*/
+        if (expressionReturnType != returnType) {
+            throw error("TypeError, cannot convert " + expressionReturnType + " to " + returnType + " on return expression");
+        }
+
+        this.currentScope = null;
+        this.currentLine = line;
+        this.currentColumn = column;
+        return null;
+    }
+
+    /**
+     * f0 -> Type()
+     * f1 -> Identifier()
+     * f2 -> ";"
+     */
+    public DataType visit(VarDeclaration n, Object argu) {
+        n.f0.accept(this, argu);
+        position(n.f1.f0);
+        return null;
+    }
+
+    /**
+     * f0 -> Type()
+     * f1 -> Identifier()
+     */
+    public DataType visit(FormalParameter n, Object argu) {
+        n.f0.accept(this, argu);
+        position(n.f1.f0);
+        return null;
+    }
+
+    /**
+     * f0 -> ArrayType()
+     *       | BooleanType()
+     *       | IntegerType()
+     *       | Identifier()
+     */
+    public DataType visit(Type n, Object argu) {
+        if (n.f0.choice instanceof Identifier) {
+            return classType(((Identifier) n.f0.choice).f0);
+        }
+        return n.f0.accept(this, argu);
+    }
+
+    /**
+     * f0 -> "boolean"
+     * f1 -> "["
+     * f2 -> "]"
+     */
+    public DataType visit(BooleanArrayType n, Object argu) {
+        position(n.f0);
+        return DataType.BOOLEAN_ARRAY;
+    }
+
+    /**
+     * f0 -> "int"
+     * f1 -> "["
+     * f2 -> "]"
+     */
+    public DataType visit(IntegerArrayType n, Object argu) {
+        position(n.f0);
+        return DataType.INT_ARRAY;
+    }
+
+    /**
+     * f0 -> "boolean"
+     */
+    public DataType visit(BooleanType n, Object argu) {
+        position(n.f0);
+        return DataType.BOOLEAN;
+    }
+
+    /**
+     * f0 -> "int"
+     */
+    public DataType visit(IntegerType n, Object argu) {
+        position(n.f0);
+        return DataType.INT;
+    }
+
+    /**
+     * f0 -> "{"
+     * f1 -> ( Statement() )*
+     * f2 -> "}"
+     */
+    public DataType visit(Block n, Object argu) {
+        for (int i = 0 ; i < n.f1.size() ; i++) {
+            n.f1.elementAt(i).accept(this, argu);
+        }
+
+        position(n.f2);
+        return null;
+    }
+
+    /**
+     * f0 -> Identifier()
+     * f1 -> "="
+     * f2 -> Expression()
+     * f3 -> ";"
+     */
+    public DataType visit(AssignmentStatement n, Object argu) {
+        DataType identifierType = n.f0.accept(this, argu);
+        DataType expressionType = n.f2.accept(this, argu);
+        position(n.f1);
+
+        if (!isAssignable(identifierType, expressionType)) {
+            throw error("TypeError, incompatible types, cannot convert " + expressionType + " to " + identifierType);
+        }
+        return null;
+    }
+
+    /**
+     * f0 -> Identifier()
+     * f1 -> "["
+     * f2 -> Expression()
+     * f3 -> "]"
+     * f4 -> "="
+     * f5 -> Expression()
+     * f6 -> ";"
+     */
+    public DataType visit(ArrayAssignmentStatement n, Object argu) {
+        DataType arrayType = n.f0.accept(this, argu);
+
+        if (!isArray(arrayType)) {
+            throw error("TypeError, " + arrayType + " is not an array");
+        }
+
+        DataType accessExpressionType = n.f2.accept(this, argu);
+        DataType assignmentExpressionType = n.f5.accept(this, argu);
+        position(n.f4);
+
+        if (assignmentExpressionType.isClass()) {
+            throw error("TypeError, cannot assign " + assignmentExpressionType + " object to " + arrayType);
+        }
+        if (arrayType.getElementType() != assignmentExpressionType) {
+            throw error("TypeError, cannot assign " + assignmentExpressionType + " to " + arrayType.getElementType());
+        }
+        if (accessExpressionType != DataType.INT) {
+            throw error("TypeError, index of array access should be int");
+        }
+        return null;
+    }
+
+    /**
+     * f0 -> "if"
+     * f1 -> "("
+     * f2 -> Expression()
+     * f3 -> ")"
+     * f4 -> Statement()
+     * f5 -> "else"
+     * f6 -> Statement()
+     */
+    public DataType visit(IfStatement n, Object argu) {
+        DataType exprType = n.f2.accept(this, argu);
+        position(n.f0);
+
+        if (exprType != DataType.BOOLEAN) {
+            throw error("TypeError, non-boolean type on if statement");
+        }
+
+        n.f4.accept(this, argu);
+        n.f6.accept(this, argu);
+        return null;
+    }
+
+    /**
+     * f0 -> "while"
+     * f1 -> "("
+     * f2 -> Expression()
+     * f3 -> ")"
+     * f4 -> Statement()
+     */
+    public DataType visit(WhileStatement n, Object argu) {
+        DataType exprType = n.f2.accept(this, argu);
+        position(n.f0);
+
+        if (exprType != DataType.BOOLEAN) {
+            throw error("TypeError, non-boolean type on while statement");
+        }
+
+        n.f4.accept(this, argu);
+        return null;
+    }
+
+    /**
+     * f0 -> "System.out.println"
+     * f1 -> "("
+     * f2 -> Expression()
+     * f3 -> ")"
+     * f4 -> ";"
+     */
+    public DataType visit(PrintStatement n, Object argu) {
+        DataType exprType = n.f2.accept(this, argu);
+        position(n.f0);
+
+        if (exprType != DataType.INT) {
+            throw error("TypeError, cannot convert " + exprType + " to int at print statement");
+        }
+        return null;
+    }
+
+    /**
+     * f0 -> Clause()
+     * f1 -> "&&"
+     * f2 -> Clause()
+     */
+    public DataType visit(AndExpression n, Object argu) {
+        DataType boolClauseLeft = n.f0.accept(this, argu);
+        position(n.f1);
+
+        if (boolClauseLeft != DataType.BOOLEAN) {
+            throw error("Invalid type on binary operator && (" + boolClauseLeft + ")");
+        }
+
+        DataType boolClauseRight = n.f2.accept(this, argu);
+        if (boolClauseRight != DataType.BOOLEAN) {
+            throw error("Invalid type on binary operator && (" + boolClauseLeft + " and " + boolClauseRight + ")");
+        }
+        return DataType.BOOLEAN;
+    }
+
+    /*Both operands of an arithmetic or comparison operator are ints*/
+    private DataType binary(PrimaryExpression left, NodeToken operator, PrimaryExpression right, DataType result, Object argu) {
+        DataType exprType1 = left.accept(this, argu);
+        DataType exprType2 = right.accept(this, argu);
+        position(operator);
+
+        if (exprType1 != DataType.INT || exprType2 != DataType.INT) {
+            throw error("Invalid types on binary operator " + operator + " (" + exprType1 + " and " + exprType2 + ")");
+        }
+        return result;
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "<"
+     * f2 -> PrimaryExpression()
+     */
+    public DataType visit(CompareExpression n, Object argu) {
+        return binary(n.f0, n.f1, n.f2, DataType.BOOLEAN, argu);
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "+"
+     * f2 -> PrimaryExpression()
+     */
+    public DataType visit(PlusExpression n, Object argu) {
+        return binary(n.f0, n.f1, n.f2, DataType.INT, argu);
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "-"
+     * f2 -> PrimaryExpression()
+     */
+    public DataType visit(MinusExpression n, Object argu) {
+        return binary(n.f0, n.f1, n.f2, DataType.INT, argu);
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "*"
+     * f2 -> PrimaryExpression()
+     */
+    public DataType visit(TimesExpression n, Object argu) {
+        return binary(n.f0, n.f1, n.f2, DataType.INT, argu);
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "["
+     * f2 -> PrimaryExpression()
+     * f3 -> "]"
+     */
+    public DataType visit(ArrayLookup n, Object argu) {
+        DataType arrayType = n.f0.accept(this, argu);
+        DataType exprType = n.f2.accept(this, argu);
+        position(n.f1);
+
+        if (!isArray(arrayType)) {
+            throw error("Invalid array lookup, " + arrayType + " is not an array");
+        }
+        if (exprType != DataType.INT) {
+            throw error("Invalid array lookup, cannot convert " + exprType + " to int");
+        }
+        return arrayType.getElementType();
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "."
+     * f2 -> "length"
+     */
+    public DataType visit(ArrayLength n, Object argu) {
+        DataType arrayType = n.f0.accept(this, argu);
+        position(n.f1);
+
+        if (arrayType.isClass()) {
+            throw error("TypeError, " + arrayType + " is not an array");
+        }
+        if (!isArray(arrayType)) {
+            throw error("Invalid length operator on non-array object");
+        }
+        return DataType.INT;
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "."
+     * f2 -> Identifier()
+     * f3 -> "("
+     * f4 -> ( ExpressionList() )?
+     * f5 -> ")"
+     */
+    public DataType visit(MessageSend n, Object argu) {
+        DataType object = n.f0.accept(this, argu);
+
+        if (!object.isClass()) {
+            throw error("TypeError, cannot perform MessageSend on primitive type");
+        }
+
+        position(n.f2.f0);
+        MemberIndex.Method classMethod = this.memberIndex.getMethod(this.classHierarchy.getId(object.getName()), n.f2.f0.toString());
+
+        if (classMethod == null) {
+            throw error("Cannot find symbol " + n.f2.f0);
+        }
+        ClassMethodDeclaration classMethodDeclaration = classMethod.declaration;
+        int expected = classMethodDeclaration.getParameters().size();
+
+        if (!n.f4.present()) {
+            if (expected != 0) {
+                throw error("Invalid method call, the number of arguments given (" + 0 + ") is less than expected (" + expected + ")");
+            }
+            return classMethodDeclaration.getReturnType();
+        }
+
+        /*Arguments past the parameters are not checked, but the first one always counts, as in the code generator*/
+        ExpressionList expressionList = (ExpressionList) n.f4.node;
+        Iterator<MethodParameter> parameters = classMethodDeclaration.getParameters().keySet().iterator();
+
+        DataType exprType = expressionList.f0.accept(this, argu);
+        if (parameters.hasNext()) {
+            checkArgument(parameters.next(), exprType);
+        }
+        int given = 1;
+
+        for (int i = 0 ; i < expressionList.f1.f0.size() ; i++) {
+            ExpressionTerm expressionTerm = (ExpressionTerm) expressionList.f1.f0.elementAt(i);
+            exprType = expressionTerm.f1.accept(this, argu);
+            position(expressionTerm.f0);
+
+            if (parameters.hasNext()) {
+                checkArgument(parameters.next(), exprType);
+                given++;
+            }
+        }
+
+        if (given != expected) {
+            throw error("Invalid method call, the number of arguments given (" + given + ") is less than expected (" + expected + ")");
+        }
+        return classMethodDeclaration.getReturnType();
+    }
+
+    private void checkArgument(MethodParameter methodParameter, DataType exprType) {
+        if (!isAssignable(methodParameter.getType(), exprType)) {
+            throw error("TypeError, cannot convert " + exprType + " to " + methodParameter.getType() + " on expression list");
+        }
+    }
+
+    /**
+     * f0 -> <INTEGER_LITERAL>
+     */
+    public DataType visit(IntegerLiteral n, Object argu) {
+        position(n.f0);
+
+        try {
+            Integer.parseInt(n.f0.toString());
+        }
+        catch(NumberFormatException e) {
+            throw error("Failed to parse integer");
+        }
+        return DataType.INT;
+    }
+
+    /**
+     * f0 -> "true"
+     */
+    public DataType visit(TrueLiteral n, Object argu) {
+        position(n.f0);
+        return DataType.BOOLEAN;
+    }
+
+    /**
+     * f0 -> "false"
+     */
+    public DataType visit(FalseLiteral n, Object argu) {
+        position(n.f0);
+        return DataType.BOOLEAN;
+    }
+
+    /**
+     * f0 -> <IDENTIFIER>
+     * An identifier in an expression, a local variable or a parameter of the method, else a field of the class.
+     */
+    public DataType visit(Identifier n, Object argu) {
+        position(n.f0);
+        String identifier = n.f0.toString();
+
+        if (this.currentScope == null) {
+            throw error("TypeError, cannot find symbol " + identifier);
+        }
+
+        MethodScope.Slot slot = this.currentScope.get(identifier);
+        if (slot != null) {
+            return slot.type;
+        }
+
+        MemberIndex.Field classField = this.memberIndex.getField(this.currentClassId, identifier);
+        if (classField == null) {
+            throw error("TypeError, cannot find symbol " + identifier);
+        }
+        return classField.type;
+    }
+
+    /**
+     * f0 -> "this"
+     */
+    public DataType visit(ThisExpression n, Object argu) {
+        position(n.f0);
+        return this.types.get(this.currentClassName);
+    }
+
+    /**
+     * f0 -> "new"
+     * f1 -> "boolean"
+     * f2 -> "["
+     * f3 -> Expression()
+     * f4 -> "]"
+     */
+    public DataType visit(BooleanArrayAllocationExpression n, Object argu) {
+        DataType exprType = n.f3.accept(this, argu);
+        position(n.f0);
+
+        if (exprType != DataType.INT) {
+            throw error("TypeError, cannot convert " + exprType + " to int for array allocation");
+        }
+        return DataType.BOOLEAN_ARRAY;
+    }
+
+    /**
+     * f0 -> "new"
+     * f1 -> "int"
+     * f2 -> "["
+     * f3 -> Expression()
+     * f4 -> "]"
+     */
+    public DataType visit(IntegerArrayAllocationExpression n, Object argu) {
+        DataType exprType = n.f3.accept(this, argu);
+        position(n.f0);
+
+        if (exprType != DataType.INT) {
+            throw error("TypeError, cannot convert " + exprType + " to int for array allocation");
+        }
+        return DataType.INT_ARRAY;
+    }
+
+    /**
+     * f0 -> "new"
+     * f1 -> Identifier()
+     * f2 -> "("
+     * f3 -> ")"
+     */
+    public DataType visit(AllocationExpression n, Object argu) {
+        return classType(n.f1.f0);
+    }
+
+    /**
+     * f0 -> "!"
+     * f1 -> Clause()
+     */
+    public DataType visit(NotExpression n, Object argu) {
+        DataType clause = n.f1.accept(this, argu);
+        position(n.f0);
+
+        if (clause != DataType.BOOLEAN) {
+            throw error("Invalid clause on !");
+        }
+        return clause;
+    }
+
+    /**
+     * f0 -> "("
+     * f1 -> Expression()
+     * f2 -> ")"
+     */
+    public DataType visit(BracketExpression n, Object argu) {
+        position(n.f0);
+        return n.f1.accept(this, argu);
+    }
+}